@@ -0,0 +1,24 @@
+package com.mingu.restfulwebapp.conditional;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+// 조건부 요청(If-None-Match / If-Modified-Since)을 엔티티 로딩 없이 처리하기 위한 version 정보
+@Getter
+@AllArgsConstructor
+public class VersionStamp {
+
+    private final Long version;
+    private final Date updatedAt;
+
+    // strong ETag: 같은 id 의 리소스는 version 이 바뀔 때만 값이 달라진다
+    public String toETag(Object id) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.getTime();
+    }
+}
@@ -0,0 +1,49 @@
+package com.mingu.restfulwebapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+application/cbor, application/x-jackson-smile 요청/응답을 처리하는 메시지 컨버터.
+spring.jackson.* 설정이 적용된 builder 로 만들고, EntityModel/CursorPage 가 JSON 과 같은 HAL 구조(_links)로 나가도록 HAL 모듈을 붙인다.
+컨버터를 bean 으로 등록하면 Spring MVC 의 같은 종류 기본 컨버터 대신 사용된다.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                            LinkRelationProvider linkRelationProvider,
+                                                                            MessageResolver messageResolver) {
+        return new MappingJackson2CborHttpMessageConverter(
+                halMapper(builder, new CBORFactory(), linkRelationProvider, messageResolver));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                              LinkRelationProvider linkRelationProvider,
+                                                                              MessageResolver messageResolver) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                halMapper(builder, new SmileFactory(), linkRelationProvider, messageResolver));
+    }
+
+    public static ObjectMapper halMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory,
+                                         LinkRelationProvider linkRelationProvider, MessageResolver messageResolver) {
+        ObjectMapper mapper = builder.createXmlMapper(false).factory(factory).build();
+        mapper.registerModule(new Jackson2HalModule());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                linkRelationProvider, CurieProvider.NONE, messageResolver));
+        return mapper;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mingu.restfulwebapp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+캐시 크기와 만료 시간은 application.yml 의 spring.cache.caffeine.spec 으로 설정한다.
+recordStats 가 켜져 있으므로 hit/miss/eviction 수치가 actuator metrics(cache.*)로 노출된다.
+캐시 advice 를 트랜잭션 advice 바깥에 두어, 캐시 hit 은 트랜잭션을 열지 않고 evict 는 커밋 이후에 일어나도록 한다.
+Caffeine 캐시는 프로세스 안에만 있고 인스턴스 사이에 evict 를 전달하지 않는다.
+같은 DB 를 여러 인스턴스가 쓰면, 다른 인스턴스에서 수정/삭제된 사용자와 ETag(userVersions)가 expireAfterWrite(30s) 동안 그대로 응답될 수 있다.
+그보다 짧은 지연이 필요해지면 인스턴스 간 무효화(메시지 브로커 등)를 먼저 넣어야 한다.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+}
@@ -0,0 +1,112 @@
+package com.mingu.restfulwebapp.config;
+
+import com.mingu.restfulwebapp.datasource.H2ReplicaFeeder;
+import com.mingu.restfulwebapp.datasource.ReadYourWrites;
+import com.mingu.restfulwebapp.datasource.ReplicaProperties;
+import com.mingu.restfulwebapp.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+replicas 프로파일: spring.datasource 를 primary 로, app.datasource.replicas 를 읽기 전용 복제본으로 사용한다.
+애플리케이션이 쓰는 DataSource 는 LazyConnectionDataSourceProxy -> ReplicaRoutingDataSource -> 각 Hikari pool 순서로 연결된다.
+복제본 상태 확인(과 H2 복제본 채우기)은 스키마와 data.sql 이 준비된 뒤 시작하며, 그 전의 읽기는 primary 로 간다.
+ */
+@Configuration
+@Profile("replicas")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig implements DisposableBean {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private H2ReplicaFeeder replicaFeeder;
+    private long healthCheckIntervalMillis;
+    private long feedIntervalMillis;
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties replicaProperties) {
+        return new ReadYourWrites(replicaProperties.getReadYourWritesSeconds());
+    }
+
+    /*
+    라우팅 DataSource 를 따로 bean 으로 등록하면 DataSource 초기화(data.sql)가 두 번 연결되면서 순환 참조가 생기므로,
+    애플리케이션에는 프록시 하나만 DataSource bean 으로 노출하고 각 pool 은 이 설정이 닫는다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ReplicaProperties replicaProperties,
+                                 ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        Map<String, DataSource> h2Replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    // 계정을 따로 지정하지 않으면 primary 와 같은 계정을 쓴다
+                    .username(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword())
+                    .build();
+            String key = "replica-" + (i + 1);
+            dataSource.setPoolName(key);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(replica.getConnectionTimeoutMillis());
+            dataSource.setReadOnly(true);
+            replicas.put(key, dataSource);
+            if (replica.getUrl().startsWith("jdbc:h2:mem:")) {
+                // 같은 DB 를 복제본으로 채우면 primary 의 데이터를 지우게 된다
+                if (replicaProperties.getFeedIntervalMillis() > 0 && replica.getUrl().equals(primary.getJdbcUrl())) {
+                    throw new IllegalStateException(String.format("Replica %s is the primary database and cannot be fed", key));
+                }
+                h2Replicas.put(key, dataSource);
+            }
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWrites, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        if (replicaProperties.getFeedIntervalMillis() > 0 && !h2Replicas.isEmpty()) {
+            replicaFeeder = new H2ReplicaFeeder(primary, h2Replicas);
+        }
+        healthCheckIntervalMillis = replicaProperties.getHealthCheckIntervalMillis();
+        feedIntervalMillis = replicaProperties.getFeedIntervalMillis();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplicas() {
+        if (replicaFeeder != null) {
+            replicaFeeder.start(feedIntervalMillis);
+        }
+        routingDataSource.startHealthChecks(healthCheckIntervalMillis);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (replicaFeeder != null) {
+            replicaFeeder.destroy();
+        }
+        if (routingDataSource != null) {
+            routingDataSource.destroy();
+        }
+    }
+}
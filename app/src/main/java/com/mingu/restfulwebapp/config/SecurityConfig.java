@@ -0,0 +1,64 @@
+package com.mingu.restfulwebapp.config;
+
+import com.mingu.restfulwebapp.security.TokenAuthenticationFilter;
+import com.mingu.restfulwebapp.security.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+@Configuration
+public class SecurityConfig extends WebSecurityConfigurerAdapter {
+
+    @Autowired
+    private TokenService tokenService;
+
+    // true 이면 /api/** 는 로그인으로 발급받은 토큰이 있어야 호출할 수 있다
+    @Value("${app.security.require-authentication:false}")
+    private boolean requireAuthentication;
+
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        http.authorizeRequests()
+                .antMatchers("/h2-console/**").permitAll()
+                .antMatchers("/api/auth/login").permitAll();
+        if (requireAuthentication) {
+            http.authorizeRequests().antMatchers("/api/**").authenticated();
+        }
+        http.csrf().disable();
+        http.headers().frameOptions().disable();
+
+        /*
+        토큰만으로 인증하므로 HttpSession 을 만들지 않는다. (nginx 뒤에서 sticky session 없이 app 을 여러 개 띄울 수 있다)
+        인증이 필요한 요청에 토큰이 없으면 로그인 페이지 대신 401 로 응답한다.
+         */
+        http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+        http.requestCache().disable();
+        http.exceptionHandling().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED));
+        http.addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+    }
+
+    // 로그인 endpoint 에서 사용한다
+    @Bean
+    @Override
+    public AuthenticationManager authenticationManagerBean() throws Exception {
+        return super.authenticationManagerBean();
+    }
+
+    @Autowired
+    public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
+        // in-memory authentication
+        auth.inMemoryAuthentication()
+                .withUser("kenneth")
+                .password("{noop}test1234")
+                .roles("USER");
+    }
+}
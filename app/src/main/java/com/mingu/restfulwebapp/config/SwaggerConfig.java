@@ -1,5 +1,6 @@
 package com.mingu.restfulwebapp.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.service.ApiInfo;
@@ -13,7 +14,9 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+// fast-start 프로파일처럼 springfox.documentation.enabled=false 이면 문서화 빈을 만들지 않는다
 @Configuration
+@ConditionalOnProperty(value = "springfox.documentation.enabled", matchIfMissing = true)
 @EnableSwagger2
 public class SwaggerConfig {
     private static final Contact DEFAULT_CONTACT = new Contact("Mingu Kang",
@@ -22,7 +25,7 @@ public class SwaggerConfig {
             "My user management REST API service", "1.0", "urn:tos",
             DEFAULT_CONTACT, "Apache 2.0", "http://www.apache.org/licenses/LICENSE-2.0", new ArrayList<>());
     private static final Set<String> DEFAULT_PRODUCES_AND_CONSUMES = new HashSet<>(
-            Arrays.asList("application/json", "application/xml"));
+            Arrays.asList("application/json", "application/xml", "application/cbor", "application/x-jackson-smile"));
 
     @Bean
     public Docket api() {
@@ -0,0 +1,136 @@
+package com.mingu.restfulwebapp.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+로컬 replicas 프로파일에서 H2 in-memory 복제본을 primary 에서 복사해 채운다. 실제 복제가 아니므로 로컬 확인용이다.
+- 처음에는 스키마(외래 키 제외)를 만들고, 그 뒤로 feed-interval-millis 마다 테이블 전체를 한 트랜잭션으로 바꿔 넣는다.
+- 복사 사이의 쓰기는 복제본에 보이지 않으므로, 그 간격이 그대로 복제 지연이 된다.
+ */
+@Slf4j
+public class H2ReplicaFeeder {
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Set<String> prepared = new HashSet<>();
+    private final ScheduledExecutorService feeder;
+
+    public H2ReplicaFeeder(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.feeder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-feeder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 첫 복사는 바로 실행해서, 복제본이 읽기를 받기 전에 채워 두도록 한다
+    public void start(long intervalMillis) {
+        feed();
+        feeder.scheduleWithFixedDelay(this::feed, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void feed() {
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try (Connection source = primary.getConnection();
+                 Connection target = replica.getValue().getConnection()) {
+                // pool 은 읽기 전용 연결을 주지만 H2 에서는 힌트일 뿐이며, 반납할 때 pool 이 되돌린다
+                target.setReadOnly(false);
+                if (!prepared.contains(replica.getKey())) {
+                    copySchema(source, target);
+                    prepared.add(replica.getKey());
+                }
+                copyData(source, target);
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Could not feed read replica {}: {}", replica.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    // 복제본에는 쓰지 않으므로 외래 키는 만들지 않는다. 테이블을 어떤 순서로 채워도 된다
+    private void copySchema(Connection source, Connection target) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.contains("FOREIGN KEY")) {
+                    statements.add(sql);
+                }
+            }
+        }
+        try (Statement statement = target.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private void copyData(Connection source, Connection target) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = target.createStatement();
+             ResultSet rows = statement.executeQuery("select table_name from information_schema.tables "
+                     + "where table_schema = 'PUBLIC' and table_type = 'TABLE'")) {
+            while (rows.next()) {
+                tables.add("\"PUBLIC\".\"" + rows.getString(1) + "\"");
+            }
+        }
+
+        target.setAutoCommit(false);
+        try {
+            for (String table : tables) {
+                copyTable(source, target, table);
+            }
+            target.commit();
+        } catch (SQLException e) {
+            target.rollback();
+            throw e;
+        } finally {
+            target.setAutoCommit(true);
+        }
+    }
+
+    private void copyTable(Connection source, Connection target, String table) throws SQLException {
+        try (Statement delete = target.createStatement()) {
+            delete.executeUpdate("delete from " + table);
+        }
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("select * from " + table)) {
+            int columns = rows.getMetaData().getColumnCount();
+            StringBuilder insert = new StringBuilder("insert into ").append(table).append(" values (");
+            for (int i = 0; i < columns; i++) {
+                insert.append(i == 0 ? "?" : ", ?");
+            }
+            try (PreparedStatement statement = target.prepareStatement(insert.append(')').toString())) {
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        statement.setObject(i, rows.getObject(i));
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    public void destroy() {
+        feeder.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package com.mingu.restfulwebapp.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.util.function.Supplier;
+
+/*
+쓰기 직후의 읽기가 아직 복제되지 않은 복제본으로 가지 않도록 primary 로 고정하는 기준.
+- 요청 안에서 쓰기 트랜잭션이 실행되면 응답에 쿠키를 붙이고, 쿠키가 살아 있는 동안 그 클라이언트의 읽기는 primary 에서 처리한다.
+- 공유 캐시를 채우는 조회처럼 요청과 무관하게 최신 값이 필요한 곳은 onPrimary 로 감싼다.
+ */
+public class ReadYourWrites {
+
+    public static final String COOKIE = "rw-primary";
+
+    private static final String PINNED = ReadYourWrites.class.getName() + ".PINNED";
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final int windowSeconds;
+
+    public ReadYourWrites(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    // 라우팅이 꺼져 있으면 아무 영향이 없다
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    boolean isPinned() {
+        if (FORCE_PRIMARY.get() != null) {
+            return true;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        Boolean pinned = (Boolean) attributes.getAttribute(PINNED, RequestAttributes.SCOPE_REQUEST);
+        if (pinned == null) {
+            pinned = WebUtils.getCookie(((ServletRequestAttributes) attributes).getRequest(), COOKIE) != null;
+            attributes.setAttribute(PINNED, pinned, RequestAttributes.SCOPE_REQUEST);
+        }
+        return pinned;
+    }
+
+    // 같은 요청의 이후 읽기도 primary 로 보내고, 다음 요청들을 위해 쿠키를 내려준다
+    void markWrite() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)
+                || Boolean.TRUE.equals(attributes.getAttribute(PINNED, RequestAttributes.SCOPE_REQUEST))) {
+            return;
+        }
+        attributes.setAttribute(PINNED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setPath("/");
+            cookie.setMaxAge(windowSeconds);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.mingu.restfulwebapp.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// application-replicas.yml 의 app.datasource.* 설정
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // 복제본에 연결할 수 있는지 확인하는 주기
+    private long healthCheckIntervalMillis = 5000;
+
+    // 쓰기 이후 같은 클라이언트의 읽기를 primary 로 보내는 시간. 복제 지연보다 길게 잡는다
+    private int readYourWritesSeconds = 5;
+
+    // 로컬 확인용: H2 in-memory 복제본(jdbc:h2:mem:)을 이 간격으로 primary 에서 복사해 채운다. 0 이면 채우지 않는다 (H2ReplicaFeeder)
+    private long feedIntervalMillis = 0;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // 복제본이 응답하지 않을 때 오래 기다리지 않고 실패하도록 primary 보다 짧게 잡는다
+        private long connectionTimeoutMillis = 2000;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mingu.restfulwebapp.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+readOnly 트랜잭션은 연결 가능한 복제본 중 하나(round-robin)로, 나머지는 primary 로 보낸다.
+연결을 실제로 얻는 시점에 트랜잭션 속성이 정해져 있어야 하므로 LazyConnectionDataSourceProxy 뒤에 둔다.
+복제본은 주기적으로 연결을 확인해서 실패한 복제본은 회복될 때까지 제외하고, 모두 실패하면 primary 로 읽는다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final ScheduledExecutorService healthChecker;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter primaryWrites;
+    private final Map<String, Counter> replicaReads = new HashMap<>();
+
+    private volatile String[] healthyReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWrites = readYourWrites;
+        this.healthyReplicas = new String[0];
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryReads = meterRegistry.counter("datasource.routing", "target", PRIMARY, "type", "read");
+        this.primaryWrites = meterRegistry.counter("datasource.routing", "target", PRIMARY, "type", "write");
+        for (String key : replicas.keySet()) {
+            replicaReads.put(key, meterRegistry.counter("datasource.routing", "target", key, "type", "read"));
+        }
+        meterRegistry.gauge("datasource.replicas.healthy", this, routing -> routing.healthyReplicas.length);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 첫 확인은 바로 실행해서, 시작 직후부터 연결할 수 없는 복제본으로 읽기가 가지 않도록 한다
+    public void startHealthChecks(long intervalMillis) {
+        checkReplicas();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 트랜잭션 밖의 연결(초기화 스크립트, 스키마 생성 등)은 쓰기로 보지 않는다
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.markWrite();
+            }
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+        String[] candidates = healthyReplicas;
+        if (candidates.length == 0 || readYourWrites.isPinned()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        String replica = candidates[Math.floorMod(next.getAndIncrement(), candidates.length)];
+        replicaReads.get(replica).increment();
+        return replica;
+    }
+
+    void checkReplicas() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isValid(replica.getValue())) {
+                healthy.add(replica.getKey());
+            }
+        }
+        String[] current = healthy.toArray(new String[0]);
+        if (!Arrays.equals(current, healthyReplicas)) {
+            log.warn("Healthy read replicas changed from {} to {}", Arrays.toString(healthyReplicas), healthy);
+        }
+        healthyReplicas = current;
+    }
+
+    private boolean isValid(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException | RuntimeException e) {
+            // pool 초기화 실패는 PoolInitializationException(RuntimeException)으로 올라온다
+            return false;
+        }
+    }
+
+    String[] getHealthyReplicas() {
+        return healthyReplicas.clone();
+    }
+
+    public void destroy() throws IOException {
+        healthChecker.shutdownNow();
+        for (Object target : getResolvedDataSources().values()) {
+            if (target instanceof Closeable) {
+                ((Closeable) target).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mingu.restfulwebapp.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/*
+한 줄에 JSON 객체 하나씩 쓰는 newline-delimited JSON writer.
+값마다 flush 하지 않고 generator 의 버퍼가 찰 때만 출력 스트림에 쓴다.
+ */
+public class NdjsonWriter<T> implements Consumer<T>, Flushable {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream out) throws IOException {
+        this.writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,113 @@
+package com.mingu.restfulwebapp.link;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/*
+linkTo(methodOn(...)) 는 호출마다 프록시 생성, 매핑 탐색, URI 파싱을 반복한다.
+LinkTemplate 은 컨트롤러 메소드의 매핑을 한 번만 해석해 두고, 요청마다 path 변수만 채워 넣는다.
+@RequestParam 은 linkTo 에 null 을 넘겼을 때처럼 {?after,limit} 형태의 template 변수로 남긴다.
+ */
+public final class LinkTemplate {
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+    // path 변수 사이의 고정 문자열. segments.length == path 변수 개수 + 1
+    private final String[] segments;
+    private final String querySuffix;
+
+    private LinkTemplate(String[] segments, String querySuffix) {
+        this.segments = segments;
+        this.querySuffix = querySuffix;
+    }
+
+    public static LinkTemplate of(Class<?> controller, String methodName, Class<?>... parameterTypes) {
+        Method method = ReflectionUtils.findMethod(controller, methodName, parameterTypes);
+        if (method == null) {
+            throw new IllegalArgumentException(String.format("No method %s on %s", methodName, controller.getName()));
+        }
+        String mapping = new AnnotationMappingDiscoverer(RequestMapping.class).getMapping(controller, method);
+        return new LinkTemplate(splitPath(mapping), querySuffix(method));
+    }
+
+    // path 변수 값은 매핑에 나타나는 순서대로 넘긴다
+    public Link expand(LinkRelation rel, Object... pathValues) {
+        if (pathValues.length != segments.length - 1) {
+            throw new IllegalArgumentException(String.format("Expected %d path values but got %d",
+                    segments.length - 1, pathValues.length));
+        }
+        StringBuilder href = new StringBuilder(64).append(baseUri()).append(segments[0]);
+        for (int i = 0; i < pathValues.length; i++) {
+            href.append(UriUtils.encodePathSegment(String.valueOf(pathValues[i]), "UTF-8"))
+                    .append(segments[i + 1]);
+        }
+        return Link.of(href.append(querySuffix).toString(), rel);
+    }
+
+    public Link expand(String rel, Object... pathValues) {
+        return expand(LinkRelation.of(rel), pathValues);
+    }
+
+    // linkTo 와 같은 기준(현재 요청의 scheme/host/port/servlet mapping)으로 만들고, 요청 안에서는 재사용한다
+    private static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        String base = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+
+    private static String[] splitPath(String mapping) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = mapping.indexOf('{', start)) >= 0) {
+            int close = mapping.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unbalanced path variable in " + mapping);
+            }
+            segments.add(mapping.substring(start, open));
+            start = close + 1;
+        }
+        segments.add(mapping.substring(start));
+        return segments.toArray(new String[0]);
+    }
+
+    private static String querySuffix(Method method) {
+        StringJoiner names = new StringJoiner(",", "{?", "}").setEmptyValue("");
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (requestParam == null) {
+                continue;
+            }
+            String name = StringUtils.hasText(requestParam.name()) ? requestParam.name() : requestParam.value();
+            if (!StringUtils.hasText(name)) {
+                parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+                name = parameter.getParameterName();
+            }
+            names.add(name);
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,163 @@
+package com.mingu.restfulwebapp.loader;
+
+import com.mingu.restfulwebapp.datasource.ReadYourWrites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/*
+id 조회를 짧은 시간(window) 동안 모아서 IN 쿼리 한 번으로 읽는다. (DataLoader 방식)
+- batch 를 처음 연 요청 스레드가 window 만큼 기다린 뒤 batch 를 닫고 직접 쿼리를 실행한다. 그 사이 들어온 조회는 같은 batch 에 합류해 결과를 기다린다.
+- 같은 id 가 열린 batch 에 이미 있으면 같은 결과를 나눠 받는다. (loader.coalesced)
+- batch 가 max-batch-size 에 닿으면 채운 스레드가 기다리지 않고 바로 실행한다.
+- 이미 닫힌 batch 에는 합류하지 않는다. 쿼리가 시작된 뒤의 조회는 그 이전에 커밋된 쓰기를 못 볼 수 있기 때문이다.
+쿼리를 요청 스레드에서 실행하므로 별도 스레드 풀이 없고, SQL 은 실행한 요청의 statement 수(SqlStatementBudgetFilter)에 잡힌다.
+ */
+public class CoalescingLoader<V> {
+
+    private final Function<List<Integer>, List<V>> batchFunction;
+    private final Function<V, Integer> idOf;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Counter requests;
+    private final Counter coalesced;
+    private final DistributionSummary batchSizes;
+
+    // 아직 쿼리를 시작하지 않은 batch. this 로 보호한다
+    private Batch<V> open;
+
+    public CoalescingLoader(String name, Function<List<Integer>, List<V>> batchFunction, Function<V, Integer> idOf,
+                            long windowMicros, int maxBatchSize, MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.batchFunction = batchFunction;
+        this.idOf = idOf;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+
+        this.requests = meterRegistry.counter("loader.requests", "loader", name);
+        this.coalesced = meterRegistry.counter("loader.coalesced", "loader", name);
+        this.batchSizes = DistributionSummary.builder("loader.batch.size")
+                .tag("loader", name)
+                .baseUnit("ids")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .maximumExpectedValue((double) maxBatchSize)
+                .register(meterRegistry);
+    }
+
+    public Optional<V> load(Integer id) {
+        return Optional.ofNullable(loadAll(Collections.singletonList(id)).get(id));
+    }
+
+    // 찾은 것만 요청한 순서대로 돌려준다
+    public Map<Integer, V> loadAll(Collection<Integer> ids) {
+        Map<Integer, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        List<Batch<V>> full = new ArrayList<>();
+        Batch<V> led = null;
+        synchronized (this) {
+            for (Integer id : ids) {
+                if (futures.containsKey(id)) {
+                    continue;
+                }
+                requests.increment();
+                if (open == null) {
+                    open = new Batch<>();
+                    led = open;
+                }
+                CompletableFuture<V> future = open.futures.get(id);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    open.futures.put(id, future);
+                } else {
+                    coalesced.increment();
+                }
+                futures.put(id, future);
+                if (open.futures.size() >= maxBatchSize) {
+                    full.add(open);
+                    if (open == led) {
+                        led = null;
+                    }
+                    open = null;
+                }
+            }
+        }
+        full.forEach(this::execute);
+
+        if (led != null) {
+            if (windowNanos > 0) {
+                LockSupport.parkNanos(windowNanos);
+            }
+            synchronized (this) {
+                if (open == led) {
+                    open = null;
+                } else {
+                    // 기다리는 동안 다른 스레드가 채워서 닫았다. 그 스레드가 실행한다
+                    led = null;
+                }
+            }
+            if (led != null) {
+                execute(led);
+            }
+        }
+
+        Map<Integer, V> result = new LinkedHashMap<>();
+        futures.forEach((id, future) -> {
+            V value = join(future);
+            if (value != null) {
+                result.put(id, value);
+            }
+        });
+        return result;
+    }
+
+    // 공유되는 결과이므로 복제 지연 없이 primary 에서 읽는다
+    private void execute(Batch<V> batch) {
+        List<Integer> ids = new ArrayList<>(batch.futures.keySet());
+        batchSizes.record(ids.size());
+        try {
+            Map<Integer, V> found = new HashMap<>();
+            for (V value : ReadYourWrites.onPrimary(() -> batchFunction.apply(ids))) {
+                found.put(idOf.apply(value), value);
+            }
+            batch.futures.forEach((id, future) -> future.complete(found.get(id)));
+        } catch (RuntimeException | Error e) {
+            // 합류한 스레드가 끝없이 기다리지 않도록 모두 실패로 끝낸다
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Batch<V> {
+        private final Map<Integer, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    }
+}
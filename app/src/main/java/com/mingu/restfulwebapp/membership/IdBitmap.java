@@ -0,0 +1,63 @@
+package com.mingu.restfulwebapp.membership;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+양의 정수 id 의 존재 여부를 id 당 1 bit 로 기록한다. id 가 sequence 로 촘촘하게 발급되므로 Bloom filter 보다 작고 오탐이 없다.
+조회는 lock 없이 읽고, 추가/삭제는 배열을 키우는 작업과 겹치지 않도록 synchronized 로 처리한다.
+ */
+public class IdBitmap {
+
+    private static final int INITIAL_WORDS = 1024;
+
+    private volatile AtomicLongArray words = new AtomicLongArray(INITIAL_WORDS);
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        AtomicLongArray current = words;
+        int index = id >>> 6;
+        return index < current.length() && (current.get(index) & (1L << id)) != 0;
+    }
+
+    public synchronized void add(int id) {
+        if (id < 0) {
+            return;
+        }
+        int index = id >>> 6;
+        ensureCapacity(index);
+        long mask = 1L << id;
+        words.accumulateAndGet(index, mask, (word, bit) -> word | bit);
+    }
+
+    public synchronized void remove(int id) {
+        int index = id >>> 6;
+        if (id < 0 || index >= words.length()) {
+            return;
+        }
+        long mask = ~(1L << id);
+        words.accumulateAndGet(index, mask, (word, bits) -> word & bits);
+    }
+
+    // 현재 메모리 사용량(bytes). 관찰용
+    public long sizeInBytes() {
+        return words.length() * 8L;
+    }
+
+    private void ensureCapacity(int index) {
+        AtomicLongArray current = words;
+        if (index < current.length()) {
+            return;
+        }
+        int length = current.length();
+        while (length <= index) {
+            length = length << 1 > 0 ? length << 1 : Integer.MAX_VALUE;
+        }
+        AtomicLongArray grown = new AtomicLongArray(length);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        words = grown;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mingu.restfulwebapp.membership;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+존재하는 User.id / Post.id 를 메모리에 들고 있다가, 확실히 없는 id 에 대한 조회를 DB 와 캐시에 가기 전에 끊는다.
+시작 시 IdMembershipLoader 가 채우기 전까지는 모든 id 가 있을 수도 있다고 답한다.
+생성 시에는 id 가 정해지는 즉시, 삭제 시에는 커밋된 후에 갱신된다. 단 이 인스턴스의 쓰기만 반영되므로 "없다" 는 답은 인스턴스가 하나일 때만 맞다.
+다른 인스턴스가 같은 DB 에 만든 id 는 bitmap 에 없으므로, app.membership.verify-misses 가 true(기본값)이면
+bitmap 에 없는 id 도 DB 에서 확인하고(캐시하지 않는다) 찾으면 bitmap 에 더한다. 인스턴스가 하나뿐일 때만 false 로 두고 DB 조회를 건너뛴다.
+ */
+@Component
+public class IdMembership {
+
+    private final IdBitmap users = new IdBitmap();
+    private final IdBitmap posts = new IdBitmap();
+
+    private final boolean verifyMisses;
+
+    private volatile boolean loaded;
+
+    public IdMembership(MeterRegistry meterRegistry, @Value("${app.membership.verify-misses:true}") boolean verifyMisses) {
+        this.verifyMisses = verifyMisses;
+        meterRegistry.gauge("id.membership.bytes", this, membership -> users.sizeInBytes() + posts.sizeInBytes());
+    }
+
+    public boolean mightContainUser(Long id) {
+        return mightContain(users, id);
+    }
+
+    public boolean mightContainPost(Long id) {
+        return mightContain(posts, id);
+    }
+
+    // bitmap 에 없다는 답을 그대로 믿고 DB 를 조회하지 않아도 되는 id
+    public boolean knownAbsentUser(Long id) {
+        return !verifyMisses && !mightContainUser(id);
+    }
+
+    public boolean knownAbsentPost(Long id) {
+        return !verifyMisses && !mightContainPost(id);
+    }
+
+    // DB 에서 찾은 id 를 더할 때도 호출되므로, 이미 있으면 lock 을 잡지 않는다
+    public void addUser(Integer id) {
+        if (!users.contains(id)) {
+            users.add(id);
+        }
+    }
+
+    public void removeUser(Long id) {
+        users.remove(id.intValue());
+    }
+
+    public void addPost(Integer id) {
+        if (!posts.contains(id)) {
+            posts.add(id);
+        }
+    }
+
+    public void removePost(Long id) {
+        posts.remove(id.intValue());
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    private boolean mightContain(IdBitmap bitmap, Long id) {
+        if (!loaded) {
+            return true;
+        }
+        return id <= Integer.MAX_VALUE && bitmap.contains(id.intValue());
+    }
+}
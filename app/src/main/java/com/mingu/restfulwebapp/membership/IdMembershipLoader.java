@@ -0,0 +1,53 @@
+package com.mingu.restfulwebapp.membership;
+
+import com.mingu.restfulwebapp.datasource.ReadYourWrites;
+import com.mingu.restfulwebapp.post.PostRepository;
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/*
+애플리케이션이 시작되면 DB 의 id 를 읽어 IdMembership 을 채운다.
+그 사이에 생성된 id 는 서비스가 이미 추가했으므로 비우지 않고 더하기만 한다.
+복제본이 뒤처져 있으면 있는 id 를 없다고 판단하게 되므로 primary 에서 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdMembershipLoader {
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final IdMembership idMembership;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        AtomicInteger users = new AtomicInteger();
+        AtomicInteger posts = new AtomicInteger();
+        ReadYourWrites.onPrimary(() -> transactionTemplate.execute(status -> {
+            try (Stream<Integer> ids = userRepository.streamAllIds()) {
+                ids.forEach(id -> {
+                    idMembership.addUser(id);
+                    users.incrementAndGet();
+                });
+            }
+            try (Stream<Integer> ids = postRepository.streamAllIds()) {
+                ids.forEach(id -> {
+                    idMembership.addPost(id);
+                    posts.incrementAndGet();
+                });
+            }
+            return null;
+        }));
+        idMembership.markLoaded();
+        log.info("Id membership loaded with {} users and {} posts", users.get(), posts.get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.mingu.restfulwebapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+요청마다 실행된 SQL statement 수를 http.server.requests.sql 로 기록한다.
+budget 을 넘긴 요청은 sql.statement.budget.exceeded 카운터를 올리고 경고 로그를 남긴다. (N+1 탐지용)
+StreamingResponseBody 처럼 다른 스레드에서 실행되는 쿼리는 집계되지 않는다.
+ */
+@Slf4j
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+
+    public SqlStatementBudgetFilter(SqlStatementCounter counter, MeterRegistry meterRegistry, int budget) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        counter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, counter.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, int statements) {
+        String uri = uri(request);
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > budget) {
+            Counter.builder("sql.statement.budget.exceeded")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} executed {} SQL statements (budget {})",
+                    request.getMethod(), request.getRequestURI(), statements, budget);
+        }
+    }
+
+    // 태그 카디널리티를 막기 위해 실제 경로 대신 매핑된 패턴을 쓴다
+    private String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.mingu.restfulwebapp.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+Hibernate 가 실행하는 모든 SQL 이 inspect 를 거친다. SQL 을 바꾸지 않고 현재 스레드의 카운터만 올린다.
+카운팅은 SqlStatementBudgetFilter 가 begin 을 호출한 요청 스레드에서만 이뤄진다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void begin() {
+        COUNT.set(new int[1]);
+    }
+
+    // 현재 요청의 statement 수를 돌려주고 카운팅을 끝낸다
+    public int end() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,31 @@
+package com.mingu.restfulwebapp.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 비동기 등록 요청의 처리 상태. GET /api/posts/ingestions/{ticket} 의 응답이다
+@Getter
+@AllArgsConstructor
+public class IngestionStatus {
+
+    public enum State {
+        QUEUED, CREATED, FAILED
+    }
+
+    private final State state;
+    private final Long userId;
+    private final Integer postId;
+    private final String message;
+
+    static IngestionStatus queued(Long userId) {
+        return new IngestionStatus(State.QUEUED, userId, null, null);
+    }
+
+    static IngestionStatus created(Long userId, Integer postId) {
+        return new IngestionStatus(State.CREATED, userId, postId, null);
+    }
+
+    static IngestionStatus failed(Long userId, String message) {
+        return new IngestionStatus(State.FAILED, userId, null, message);
+    }
+}
@@ -0,0 +1,115 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.paging.Cursor;
+import com.mingu.restfulwebapp.paging.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+사이트 전체의 최근 게시물 capacity 건을 고정 크기 ring buffer 에 들고 있다가 DB 조회 없이 응답한다.
+- 쓰기는 sequence 를 하나 받아서 해당 칸을 덮어쓰기만 하므로 lock 이 없다.
+- 각 칸은 자신의 sequence 를 함께 들고 있어서, 읽는 도중 덮어쓰인 칸이나 아직 채워지지 않은 칸은 건너뛴다.
+- 게시물 id 는 등록 순서와 조금 어긋날 수 있으므로 cursor 에는 id 대신 ring 의 sequence 를 담는다.
+  cursor 가 가리키는 위치가 이미 덮어쓰였다면 창(window)을 벗어난 것이므로 빈 페이지로 끝난다.
+ */
+@Component
+public class LatestPostFeed {
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    public LatestPostFeed(@Value("${app.feed.capacity:1024}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(PostSummary post) {
+        long sequence = next.getAndIncrement();
+        slots.set(index(sequence), new Slot(sequence, post));
+    }
+
+    // 여러 건을 등록 순서대로 넣는다. sequence 는 한 번에 받는다
+    public void addAll(List<PostSummary> posts) {
+        long sequence = next.getAndAdd(posts.size());
+        for (PostSummary post : posts) {
+            slots.set(index(sequence), new Slot(sequence, post));
+            sequence++;
+        }
+    }
+
+    // 삭제는 드물기 때문에 창 전체를 훑는다
+    public void remove(Integer postId) {
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+            if (slot != null && slot.post.getId().equals(postId)) {
+                slots.compareAndSet(i, slot, null);
+            }
+        }
+    }
+
+    // 삭제된 사용자의 게시물을 피드에서 뺀다. remove 와 같이 창 전체를 훑는다
+    public void removeUser(Integer userId) {
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+            if (slot != null && slot.post.getUserId().equals(userId)) {
+                slots.compareAndSet(i, slot, null);
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    // 최신 게시물부터 limit 건. after 는 이전 페이지의 nextCursor 를 decode 한 값이다
+    public CursorPage<PostSummary> read(Integer after, int limit) {
+        long head = next.get();
+        long oldest = Math.max(0, head - slots.length());
+        long sequence = head - 1;
+        if (after != null) {
+            // cursor 에는 sequence 의 하위 32bit 만 담기므로 head 와의 거리로 원래 값을 되살린다
+            long distance = ((int) head - after) & 0xffffffffL;
+            sequence = head - distance - 1;
+        }
+
+        List<PostSummary> posts = new ArrayList<>(limit);
+        long last = -1;
+        for (; sequence >= oldest; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence != sequence) {
+                continue;
+            }
+            if (posts.size() == limit) {
+                // 한 건이 더 남아 있으므로 다음 페이지가 있다
+                return new CursorPage<>(posts, Cursor.encode((int) last));
+            }
+            posts.add(slot.post);
+            last = sequence;
+        }
+        return new CursorPage<>(posts, null);
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    @RequiredArgsConstructor
+    private static class Slot {
+        private final long sequence;
+        private final PostSummary post;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.datasource.ReadYourWrites;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 애플리케이션이 시작되면 DB 의 최근 게시물로 피드를 채운다. 이후에는 PostService 가 피드를 갱신한다
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestPostFeedLoader {
+
+    private final PostRepository postRepository;
+    private final LatestPostFeed latestPostFeed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<PostSummary> posts = ReadYourWrites.onPrimary(
+                () -> postRepository.findLatestSummaries(PageRequest.of(0, latestPostFeed.capacity())));
+        latestPostFeed.clear();
+        // 오래된 것부터 넣어야 최신 게시물이 ring 의 앞쪽에 온다
+        for (int i = posts.size() - 1; i >= 0; i--) {
+            latestPostFeed.add(posts.get(i));
+        }
+        log.info("Latest post feed warmed with {} posts", posts.size());
+    }
+}
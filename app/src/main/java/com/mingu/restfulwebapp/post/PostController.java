@@ -0,0 +1,88 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.exception.InvalidCursorException;
+import com.mingu.restfulwebapp.paging.Cursor;
+import com.mingu.restfulwebapp.paging.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@Validated
+@RequiredArgsConstructor
+@RequestMapping("/api/posts")
+public class PostController {
+
+    // 검색은 점수 순 상위 offset + limit 건을 매번 다시 계산하므로, 이보다 깊은 페이지는 요청할 수 없다
+    static final int MAX_SEARCH_OFFSET = 1000;
+
+    private final PostService postService;
+    private final ObjectProvider<PostIngestionQueue> postIngestionQueue;
+
+    // ?ids=1,2,3 의 게시물을 한 번에 조회한다. 요청한 순서대로 응답하고 없는 id 는 빠진다
+    @GetMapping(params = "ids")
+    public List<Post> retrievePosts(@RequestParam @Size(max = Cursor.MAX_LIMIT) List<Long> ids) {
+        return postService.getPostsByIds(ids);
+    }
+
+    /*
+    게시물 본문 검색. 결과는 점수 순으로 정렬되며,
+    점수 순서에는 id 로 이어서 조회할 수 있는 기준이 없으므로 cursor 에는 다음 페이지의 시작 위치를 담는다.
+     */
+    @GetMapping("/search")
+    public CursorPage<PostSearchHit> searchPosts(@RequestParam String q,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        Integer decoded = Cursor.decode(after);
+        int offset = decoded == null ? 0 : Math.max(decoded, 0);
+        if (offset > MAX_SEARCH_OFFSET) {
+            throw new InvalidCursorException(String.format("Cursor[%s] is beyond the last searchable result", after));
+        }
+        List<PostSearchHit> hits = postService.searchPosts(q, offset, pageSize + 1);
+
+        // MAX_SEARCH_OFFSET 을 넘는 다음 페이지는 제공하지 않는다
+        if (hits.size() <= pageSize || offset + pageSize > MAX_SEARCH_OFFSET) {
+            return new CursorPage<>(hits, null);
+        }
+        CursorPage<PostSearchHit> page = new CursorPage<>(hits.subList(0, pageSize), Cursor.encode(offset + pageSize));
+        page.add(linkTo(methodOn(this.getClass()).searchPosts(q, page.getNextCursor(), limit))
+                .withRel(IanaLinkRelations.NEXT));
+        return page;
+    }
+
+    // 사이트 전체의 최근 게시물. 최근 app.feed.capacity 건 안에서만 페이지를 넘길 수 있다
+    @GetMapping("/latest")
+    public CursorPage<PostSummary> retrieveLatestPosts(@RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Integer limit) {
+        CursorPage<PostSummary> page = postService.getLatestPosts(Cursor.decode(after), Cursor.limit(limit));
+        if (page.hasNext()) {
+            page.add(linkTo(methodOn(this.getClass()).retrieveLatestPosts(page.getNextCursor(), limit))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    // 비동기 등록 요청의 처리 상태. 비동기 모드가 아니거나 만료된 ticket 이면 404
+    @GetMapping("/ingestions/{ticket}")
+    public ResponseEntity<IngestionStatus> retrieveIngestionStatus(@PathVariable String ticket) {
+        PostIngestionQueue ingestionQueue = postIngestionQueue.getIfAvailable();
+        if (ingestionQueue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(ingestionQueue.getStatus(ticket));
+    }
+}
@@ -0,0 +1,198 @@
+package com.mingu.restfulwebapp.post;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mingu.restfulwebapp.exception.IngestionQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+app.ingest.async=true 일 때 POST /api/users/{id}/posts 는 게시물을 바로 저장하지 않고 이 큐에 넣은 뒤 202 로 응답한다.
+writer 스레드 하나가 큐에 쌓인 게시물을 batch-size 단위로 모아 한 트랜잭션의 batch insert 로 저장한다.
+큐가 가득 차면 IngestionQueueFullException(429) 으로 요청을 거절한다.
+종료 시에는 웹 서버가 요청을 더 받지 않게 된 뒤에 멈추며, 큐에 남은 게시물을 모두 저장하고 나서 끝난다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.ingest.async", havingValue = "true")
+public class PostIngestionQueue implements SmartLifecycle {
+
+    // 웹 서버(graceful shutdown 포함)보다 늦게 멈춰야 새로 들어오는 요청 없이 큐를 비울 수 있다
+    private static final int PHASE = Integer.MAX_VALUE - 2048;
+    private static final long POLL_MILLIS = 100;
+
+    private final PostService postService;
+    private final BlockingQueue<PendingPost> queue;
+    private final int batchSize;
+    private final Cache<String, IngestionStatus> statuses;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile Runnable stopCallback;
+    private Thread writer;
+
+    public PostIngestionQueue(PostService postService, MeterRegistry meterRegistry,
+                              @Value("${app.ingest.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.ingest.batch-size:50}") int batchSize) {
+        this.postService = postService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        // 상태 조회용. 오래된 ticket 은 잊는다
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(queueCapacity * 10L, 10_000L))
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .build();
+
+        meterRegistry.gauge("post.ingest.queue.depth", queue, BlockingQueue::size);
+        this.accepted = meterRegistry.counter("post.ingest.accepted");
+        this.rejected = meterRegistry.counter("post.ingest.rejected");
+        this.failed = meterRegistry.counter("post.ingest.failed");
+        this.batchSizes = DistributionSummary.builder("post.ingest.batch.size")
+                .baseUnit("posts")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // 큐에 넣고 상태 조회용 ticket 을 돌려준다
+    public String submit(Long userId, Post post) {
+        String ticket = UUID.randomUUID().toString();
+        statuses.put(ticket, IngestionStatus.queued(userId));
+        if (!running || !queue.offer(new PendingPost(ticket, userId, post))) {
+            statuses.invalidate(ticket);
+            rejected.increment();
+            throw new IngestionQueueFullException(running
+                    ? "Post ingestion queue is full, retry later"
+                    : "Post ingestion is shutting down");
+        }
+        accepted.increment();
+        return ticket;
+    }
+
+    public Optional<IngestionStatus> getStatus(String ticket) {
+        return Optional.ofNullable(statuses.getIfPresent(ticket));
+    }
+
+    private void drain() {
+        List<PendingPost> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingPost first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Post ingestion writer interrupted with {} posts still queued", queue.size());
+        } finally {
+            Runnable callback = stopCallback;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    private void write(List<PendingPost> batch) {
+        batchSizes.record(batch.size());
+        List<Long> userIds = new ArrayList<>(batch.size());
+        List<Post> posts = new ArrayList<>(batch.size());
+        for (PendingPost pending : batch) {
+            userIds.add(pending.userId);
+            posts.add(pending.post);
+        }
+        try {
+            complete(batch, postService.createAll(userIds, posts));
+        } catch (RuntimeException e) {
+            // 한 건 때문에(예: 그 사이 삭제된 사용자) 전체 batch 가 롤백되었으므로, 한 건씩 다시 저장해서 실패한 건만 골라낸다
+            log.warn("Post ingestion batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingPost pending : batch) {
+                writeOne(pending);
+            }
+        }
+    }
+
+    private void writeOne(PendingPost pending) {
+        try {
+            List<Integer> ids = postService.createAll(pending.userId, Collections.singletonList(pending.post));
+            complete(Collections.singletonList(pending), ids);
+        } catch (RuntimeException e) {
+            failed.increment();
+            statuses.put(pending.ticket, IngestionStatus.failed(pending.userId, e.getMessage()));
+        }
+    }
+
+    private void complete(List<PendingPost> batch, List<Integer> ids) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingPost pending = batch.get(i);
+            statuses.put(pending.ticket, IngestionStatus.created(pending.userId, ids.get(i)));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "post-ingest-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stopCallback = callback;
+        running = false;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private static class PendingPost {
+        private final String ticket;
+        private final Long userId;
+        private final Post post;
+
+        PendingPost(String ticket, Long userId, Post post) {
+            this.ticket = ticket;
+            this.userId = userId;
+            this.post = post;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.loader.CoalescingLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostLoader extends CoalescingLoader<Post> {
+
+    public PostLoader(PostRepository postRepository, MeterRegistry meterRegistry,
+                      @Value("${app.loader.window-micros:500}") long windowMicros,
+                      @Value("${app.loader.max-batch-size:100}") int maxBatchSize) {
+        super("posts", postRepository::findAllVisibleById, Post::getId, windowMicros, maxBatchSize, meterRegistry);
+    }
+}
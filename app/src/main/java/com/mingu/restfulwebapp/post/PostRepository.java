@@ -0,0 +1,74 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.conditional.VersionStamp;
+import com.mingu.restfulwebapp.post.Post;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface PostRepository extends JpaRepository<Post, Integer>, PostRepositoryCustom {
+
+    /*
+    (user_id, id) 인덱스를 타는 범위 스캔 한 번으로 한 페이지를 가져온다.
+    메소드 이름으로 쿼리를 만들면 user 테이블과 outer join 하므로 JPQL로 직접 작성한다.
+     */
+    @Query("select p from Post p where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<Post> findPageByUserId(@Param("userId") Integer userId, @Param("afterId") Integer afterId, Pageable pageable);
+
+    // 사용자의 가장 최근 게시물. findPageByUserId 와 같은 인덱스를 역순으로 읽는다
+    @Query("select p from Post p where p.user.id = :userId order by p.id desc")
+    List<Post> findLatestByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    /*
+    삭제 표시된 사용자의 게시물은 UserPurgeJob 이 지울 때까지 남아 있으므로, 사용자를 거치지 않는 조회는 VISIBLE 조건으로 걸러낸다.
+    User 의 @Where 는 association join 에는 적용되지 않으므로 deleted 를 직접 비교한다. user.id 는 PK 조회이다
+     */
+    String VISIBLE = "exists (select u.id from User u where u.id = p.user.id and u.deleted = false)";
+
+    // id 로 여러 건 조회 (PostLoader, 검색 결과)
+    @Query("select p from Post p where p.id in :ids and " + VISIBLE)
+    List<Post> findAllVisibleById(@Param("ids") Iterable<Integer> ids);
+
+    // 최근 게시물 피드 초기화용. 엔티티 대신 피드 항목으로 바로 읽는다
+    @Query("select new com.mingu.restfulwebapp.post.PostSummary(p.id, p.user.id, p.description, p.updatedAt) from Post p where " + VISIBLE + " order by p.id desc")
+    List<PostSummary> findLatestSummaries(Pageable pageable);
+
+    // 삭제된 사용자의 게시물 정리(UserPurgeJob)용. 한 번에 지울 id 를 (user_id, id) 인덱스로 찾는다
+    @Query("select p.id from Post p where p.user.id = :userId order by p.id")
+    List<Integer> findIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    // 지우기 전에 검색 색인과 피드에서 먼저 빼기 위해 id 만 이어서 읽는다
+    @Query("select p.id from Post p where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<Integer> findIdsByUserIdAfter(@Param("userId") Integer userId, @Param("afterId") Integer afterId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Post p where p.id in :ids")
+    int deleteAllByIds(@Param("ids") List<Integer> ids);
+
+    @Query("select p.user.id from Post p where p.id = :id")
+    Optional<Integer> findUserIdById(@Param("id") Integer id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Post p where " + VISIBLE + " order by p.id")
+    Stream<Post> streamAll();
+
+    // IdMembership 적재용. PK 인덱스만 읽는다
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id from Post p")
+    Stream<Integer> streamAllIds();
+
+    @Query("select new com.mingu.restfulwebapp.conditional.VersionStamp(p.version, p.updatedAt) from Post p where p.id = :id and " + VISIBLE)
+    Optional<VersionStamp> findVersionStampById(@Param("id") Integer id);
+}
@@ -0,0 +1,21 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.projection.FieldSelection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface PostRepositoryCustom {
+
+    Set<String> SELECTABLE_FIELDS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList("id", "description")));
+
+    List<Map<String, Object>> findFieldsByUserId(FieldSelection selection, Integer userId, Integer afterId, int limit);
+
+    Optional<Map<String, Object>> findFieldsByUserIdAndId(FieldSelection selection, Integer userId, Integer postId);
+}
@@ -0,0 +1,56 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.projection.FieldSelection;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class PostRepositoryImpl implements PostRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    // findPageByUserId 와 같은 (user_id, id) 범위 스캔. user.id 는 외래키 컬럼이므로 join 하지 않는다
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(FieldSelection selection, Integer userId, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> post = query.from(Post.class);
+        ParameterExpression<Integer> user = cb.parameter(Integer.class);
+        ParameterExpression<Integer> after = cb.parameter(Integer.class);
+        query.multiselect(selection.select(post))
+                .where(cb.equal(post.get("user").get("id"), user),
+                        cb.greaterThan(post.get("id"), after))
+                .orderBy(cb.asc(post.get("id")));
+        return selection.toRows(entityManager.createQuery(query)
+                .setParameter(user, userId)
+                .setParameter(after, afterId)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    // 다른 사용자의 게시물 id 로는 찾지 못하도록 user_id 도 조건에 넣는다
+    @Override
+    public Optional<Map<String, Object>> findFieldsByUserIdAndId(FieldSelection selection, Integer userId, Integer postId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> post = query.from(Post.class);
+        ParameterExpression<Integer> user = cb.parameter(Integer.class);
+        ParameterExpression<Integer> id = cb.parameter(Integer.class);
+        query.multiselect(selection.select(post))
+                .where(cb.equal(post.get("id"), id),
+                        cb.equal(post.get("user").get("id"), user));
+        return selection.toRows(entityManager.createQuery(query)
+                .setParameter(user, userId)
+                .setParameter(id, postId)
+                .getResultList()).stream().findFirst();
+    }
+}
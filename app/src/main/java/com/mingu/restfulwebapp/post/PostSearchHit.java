@@ -0,0 +1,13 @@
+package com.mingu.restfulwebapp.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PostSearchHit {
+
+    private Integer id;
+    private String description;
+    private double score;
+}
@@ -0,0 +1,190 @@
+package com.mingu.restfulwebapp.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+게시물 본문(description)에 대한 in-process 역색인(inverted index).
+검색 비용은 전체 게시물 수가 아니라 검색어가 포함된 게시물(posting) 수에만 비례하며, 점수는 BM25 로 계산한다.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Comparator<Hit> BY_SCORE =
+            Comparator.comparingDouble(Hit::getScore).thenComparing(Hit::getPostId);
+
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    public void index(Integer postId, String text) {
+        List<String> tokens = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            indexInternal(postId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // postId -> 본문. 토큰은 lock 밖에서 나누고, write lock 은 한 번만 잡는다
+    public void indexAll(Map<Integer, String> texts) {
+        Map<Integer, List<String>> tokens = new LinkedHashMap<>();
+        texts.forEach((postId, text) -> tokens.put(postId, tokenize(text)));
+        lock.writeLock().lock();
+        try {
+            tokens.forEach(this::indexInternal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer postId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 점수 순으로 정렬된 결과 중 [offset, offset + limit) 구간을 돌려준다
+    public List<Hit> search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative: " + offset);
+        }
+        // offset + limit 가 int 범위를 넘지 않도록 long 으로 더한다
+        int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Hit> top;
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Integer, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((postId, tf) -> {
+                    double norm = tf + K1 * (1 - B + B * documents.get(postId).getLength() / averageLength);
+                    scores.merge(postId, idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+            // 큐는 실제로 점수가 매겨진 게시물 수보다 크게 잡지 않는다
+            top = new PriorityQueue<>(Math.min(wanted, scores.size()) + 1, BY_SCORE);
+            scores.forEach((postId, score) -> {
+                top.offer(new Hit(postId, score));
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(BY_SCORE.reversed());
+        if (offset >= ranked.size()) {
+            return Collections.emptyList();
+        }
+        return ranked.subList(offset, Math.min(ranked.size(), wanted));
+    }
+
+    private void indexInternal(Integer postId, List<String> tokens) {
+        removeInternal(postId);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, tf));
+        documents.put(postId, new Document(frequencies.keySet().toArray(new String[0]), tokens.size()));
+        totalLength += tokens.size();
+    }
+
+    private void removeInternal(Integer postId) {
+        Document document = documents.remove(postId);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.getLength();
+        for (String term : document.getTerms()) {
+            Map<Integer, Integer> posting = postings.get(term);
+            posting.remove(postId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private final Integer postId;
+        private final double score;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Document {
+        private final String[] terms;
+        private final int length;
+    }
+}
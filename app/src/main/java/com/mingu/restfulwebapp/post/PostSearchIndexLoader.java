@@ -0,0 +1,35 @@
+package com.mingu.restfulwebapp.post;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+// 애플리케이션이 시작되면 DB 의 게시물로 검색 색인을 다시 만든다. 이후에는 PostService 가 색인을 갱신한다
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndexLoader {
+
+    private final PostRepository postRepository;
+    private final PostSearchIndex postSearchIndex;
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        postSearchIndex.clear();
+        try (Stream<Post> posts = postRepository.streamAll()) {
+            posts.forEach(post -> {
+                postSearchIndex.index(post.getId(), post.getDescription());
+                entityManager.detach(post);
+            });
+        }
+        log.info("Post search index rebuilt with {} posts", postSearchIndex.size());
+    }
+}
@@ -0,0 +1,243 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.conditional.VersionStamp;
+import com.mingu.restfulwebapp.datasource.ReadYourWrites;
+import com.mingu.restfulwebapp.exception.PostNotFoundException;
+import com.mingu.restfulwebapp.projection.FieldSelection;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.membership.IdMembership;
+import com.mingu.restfulwebapp.paging.CursorPage;
+import com.mingu.restfulwebapp.transaction.AfterCommit;
+import com.mingu.restfulwebapp.user.stats.UserPostStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class PostService {
+
+    // application.yml 의 hibernate.jdbc.batch_size 와 같은 값으로 flush/clear 한다
+    private static final int BULK_FLUSH_SIZE = 50;
+
+    private final PostRepository postRepository;
+    private final EntityManager entityManager;
+    private final PostSearchIndex postSearchIndex;
+    private final IdMembership idMembership;
+    private final UserPostStats userPostStats;
+    private final LatestPostFeed latestPostFeed;
+    private final PostLoader postLoader;
+    private final CacheManager cacheManager;
+
+    @CacheEvict(cacheNames = {"posts", "postVersions"}, key = "#result.id.longValue()")
+    public Post create(Post post) {
+        Post savedPost = postRepository.save(post);
+        idMembership.addPost(savedPost.getId());
+        userPostStats.postCreated(savedPost.getUser().getId(), savedPost.getId());
+        latestPostFeed.add(summaryOf(savedPost, savedPost.getUser().getId()));
+        postSearchIndex.index(savedPost.getId(), savedPost.getDescription());
+        return savedPost;
+    }
+
+    @Transactional
+    public List<Integer> createAll(Long userId, List<Post> posts) {
+        return persistAll(posts, i -> userId);
+    }
+
+    // 여러 사용자의 게시물을 한 트랜잭션으로 등록한다. userIds.get(i) 가 posts.get(i) 의 작성자이다
+    @Transactional
+    public List<Integer> createAll(List<Long> userIds, List<Post> posts) {
+        return persistAll(posts, userIds::get);
+    }
+
+    private static PostSummary summaryOf(Post post, Integer userId) {
+        return new PostSummary(post.getId(), userId, post.getDescription(), new Date());
+    }
+
+    private List<Integer> persistAll(List<Post> posts, IntFunction<Long> userIdOf) {
+        List<Integer> ids = new ArrayList<>(posts.size());
+        List<PostSummary> summaries = new ArrayList<>(posts.size());
+        Map<Integer, String> descriptions = new LinkedHashMap<>();
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            post.setId(null);
+            // 사용자 엔티티를 조회하지 않고 FK 값만 가진 프록시를 사용한다
+            Integer userId = userIdOf.apply(i).intValue();
+            post.setUser(entityManager.getReference(User.class, userId));
+            entityManager.persist(post);
+            idMembership.addPost(post.getId());
+            userPostStats.postCreated(userId, post.getId());
+            summaries.add(summaryOf(post, userId));
+            descriptions.put(post.getId(), post.getDescription());
+            ids.add(post.getId());
+            if ((i + 1) % BULK_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        /*
+        롤백된 게시물이 피드와 검색에 보이지 않도록 커밋 뒤에 반영한다. 게시물마다 synchronization 을 등록하지 않고 한 번에 넣는다.
+        비동기 등록은 batch 마다 이 경로를 타므로 캐시 전체가 아니라 새로 만든 id 만 비운다.
+         */
+        AfterCommit.run(() -> {
+            latestPostFeed.addAll(summaries);
+            postSearchIndex.indexAll(descriptions);
+            evict(ids);
+        });
+        return ids;
+    }
+
+    // 조회 결과가 없던 id 도 캐시되므로, 새로 생성된 id 의 캐시를 비운다
+    private void evict(List<Integer> ids) {
+        Cache posts = cacheManager.getCache("posts");
+        Cache postVersions = cacheManager.getCache("postVersions");
+        for (Integer id : ids) {
+            posts.evict(id.longValue());
+            postVersions.evict(id.longValue());
+        }
+    }
+
+    /*
+    공유 캐시에 복제 지연된 값이 들어가지 않도록 primary 에서 읽는다. IdMembership 에 없는 id 는 캐시하지 않고 DB 에서 확인한다. (UserService.getUserById 참고)
+    캐시 miss 는 PostLoader 가 다른 요청의 miss 와 모아 IN 쿼리로 읽는다.
+     */
+    @Cacheable(cacheNames = "posts", key = "#postId", sync = true, condition = "@idMembership.mightContainPost(#postId)")
+    public Optional<Post> getPostById(Long postId) {
+        if (idMembership.knownAbsentPost(postId)) {
+            return Optional.empty();
+        }
+        Optional<Post> post = postLoader.load(postId.intValue());
+        post.ifPresent(found -> idMembership.addPost(found.getId()));
+        return post;
+    }
+
+    // GET /api/posts?ids= 용. UserService.getUsersByIds 와 같이 캐시에 없는 id 만 한 번에 읽고, 읽은 값은 캐시하지 않는다
+    public List<Post> getPostsByIds(Collection<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Cache posts = cacheManager.getCache("posts");
+        Map<Integer, Post> found = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Long id : requested) {
+            if (idMembership.knownAbsentPost(id)) {
+                continue;
+            }
+            Cache.ValueWrapper cached = posts.get(id);
+            if (cached == null) {
+                misses.add(id.intValue());
+            } else if (cached.get() != null) {
+                found.put(id.intValue(), (Post) cached.get());
+            }
+        }
+        found.putAll(postLoader.loadAll(misses));
+        found.keySet().forEach(idMembership::addPost);
+
+        List<Post> result = new ArrayList<>(found.size());
+        for (Long id : requested) {
+            Post post = found.get(id.intValue());
+            if (post != null) {
+                result.add(post);
+            }
+        }
+        return result;
+    }
+
+    @Cacheable(cacheNames = "postVersions", key = "#postId", sync = true, condition = "@idMembership.mightContainPost(#postId)")
+    public Optional<VersionStamp> getVersionStamp(Long postId) {
+        if (idMembership.knownAbsentPost(postId)) {
+            return Optional.empty();
+        }
+        Optional<VersionStamp> stamp = ReadYourWrites.onPrimary(() -> postRepository.findVersionStampById(postId.intValue()));
+        stamp.ifPresent(found -> idMembership.addPost(postId.intValue()));
+        return stamp;
+    }
+
+    // 메모리의 피드에서만 읽는다
+    public CursorPage<PostSummary> getLatestPosts(Integer after, int limit) {
+        return latestPostFeed.read(after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Post> getPostsByUserAfter(Long userId, Integer afterId, int limit) {
+        return postRepository.findPageByUserId(
+                userId.intValue(), afterId == null ? 0 : afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPostFieldsByUserAfter(Long userId, String fields, Integer afterId, int limit) {
+        FieldSelection selection = FieldSelection.parse(fields, PostRepository.SELECTABLE_FIELDS);
+        return postRepository.findFieldsByUserId(selection, userId.intValue(), afterId == null ? 0 : afterId, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getPostFieldsByUser(Long userId, Long postId, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, PostRepository.SELECTABLE_FIELDS);
+        return postRepository.findFieldsByUserIdAndId(selection, userId.intValue(), postId.intValue());
+    }
+
+    /*
+    색인에서 점수 순으로 id 를 찾고, 해당 페이지의 게시물만 IN 쿼리 한 번으로 조회한다.
+    롤백 등으로 DB 에 없는 id 는 결과에서 제외한다.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> searchPosts(String query, int offset, int limit) {
+        List<PostSearchIndex.Hit> hits = postSearchIndex.search(query, offset, limit);
+        // 색인에서 아직 빠지지 않은 삭제된 사용자의 게시물은 여기서 걸러진다
+        Map<Integer, Post> posts = postRepository.findAllVisibleById(
+                hits.stream().map(PostSearchIndex.Hit::getPostId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> posts.containsKey(hit.getPostId()))
+                .map(hit -> new PostSearchHit(hit.getPostId(), posts.get(hit.getPostId()).getDescription(), hit.getScore()))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Post> consumer) {
+        try (Stream<Post> posts = postRepository.streamAll()) {
+            posts.forEach(post -> {
+                consumer.accept(post);
+                entityManager.detach(post);
+            });
+        }
+    }
+
+    @CacheEvict(cacheNames = {"posts", "postVersions"}, key = "#postId")
+    public void removePostById(Long postId) {
+        // 통계를 갱신할 사용자 id. user_id 컬럼만 읽는다
+        Integer userId = postRepository.findUserIdById(postId.intValue())
+                .orElseThrow(() -> new PostNotFoundException(String.format("Post ID[%s] not found", postId)));
+        try {
+            postRepository.deleteById(postId.intValue());
+            postSearchIndex.remove(postId.intValue());
+            idMembership.removePost(postId);
+            userPostStats.postRemoved(userId, postId.intValue());
+            latestPostFeed.remove(postId.intValue());
+        } catch (EmptyResultDataAccessException e) {
+            throw new PostNotFoundException(String.format("Post ID[%s] not found", postId));
+        }
+    }
+}
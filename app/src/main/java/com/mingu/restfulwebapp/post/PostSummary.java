@@ -0,0 +1,17 @@
+package com.mingu.restfulwebapp.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+// 최근 게시물 피드(GET /api/posts/latest)의 항목. 피드에 들어갈 때 한 번 만들어지고 이후에는 바뀌지 않는다
+@Getter
+@AllArgsConstructor
+public class PostSummary {
+
+    private final Integer id;
+    private final Integer userId;
+    private final String description;
+    private final Date createdAt;
+}
@@ -0,0 +1,75 @@
+package com.mingu.restfulwebapp.projection;
+
+import com.mingu.restfulwebapp.exception.InvalidFieldsException;
+
+import javax.persistence.Tuple;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+?fields=name,joinDate 처럼 요청한 속성만 select 절에 넣기 위한 값 객체.
+cursor 를 만들어야 하므로 id 는 항상 첫 번째로 포함된다.
+선택 가능한 속성은 각 repository 가 정하며, 그 밖의 이름은 InvalidFieldsException(400) 이 된다.
+ */
+public final class FieldSelection {
+
+    private static final String ID = "id";
+
+    private final List<String> fields;
+
+    private FieldSelection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields, Set<String> selectable) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!selectable.contains(name)) {
+                throw new InvalidFieldsException(String.format("Unknown field [%s], selectable fields are %s", name, selectable));
+            }
+            selected.add(name);
+        }
+        return new FieldSelection(Collections.unmodifiableList(new ArrayList<>(selected)));
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public Selection<?>[] select(From<?, ?> root) {
+        Selection<?>[] selections = new Selection<?>[fields.size()];
+        for (int i = 0; i < selections.length; i++) {
+            selections[i] = root.get(fields.get(i)).alias(fields.get(i));
+        }
+        return selections;
+    }
+
+    // Tuple 은 영속성 컨텍스트에 올라가지 않는 스칼라 값이므로 그대로 응답용 Map 으로 옮긴다
+    public List<Map<String, Object>> toRows(List<Tuple> tuples) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static Integer idOf(Map<String, Object> row) {
+        return (Integer) row.get(ID);
+    }
+}
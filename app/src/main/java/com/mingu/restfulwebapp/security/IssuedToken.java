@@ -0,0 +1,17 @@
+package com.mingu.restfulwebapp.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IssuedToken {
+
+    private final String token;
+    // epoch 초
+    private final long expiresAt;
+
+    public String getTokenType() {
+        return "Bearer";
+    }
+}
@@ -0,0 +1,155 @@
+package com.mingu.restfulwebapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+HMAC-SHA256 으로 서명한 토큰. 형식은 base64url(사용자|만료시각(epoch 초)|권한들) + "." + base64url(서명) 이다.
+서버에 상태를 두지 않으므로 같은 secret 을 가진 어느 인스턴스에서도 검증할 수 있다.
+검증이 끝난 토큰은 만료 시각과 함께 캐시해 두고, 같은 토큰으로 다시 요청하면 서명 계산을 건너뛴다.
+ */
+@Service
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // HMAC-SHA256 의 키 길이(32 바이트)보다 짧은 secret 은 받지 않는다
+    static final int MIN_SECRET_BYTES = 32;
+    // 저장소에 들어 있는 기본값. 누구나 알 수 있으므로 인증을 켤 때는 쓸 수 없다
+    static final List<String> SHIPPED_SECRETS = Arrays.asList("local-development-secret-change-me", "change-me-shared-secret");
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> verified;
+
+    @Autowired
+    public TokenService(@Value("${app.security.token.secret:}") String secret,
+                        @Value("${app.security.token.ttl-seconds:3600}") long ttlSeconds,
+                        @Value("${app.security.token.cache-size:10000}") long cacheSize,
+                        @Value("${app.security.require-authentication:false}") boolean requireAuthentication) {
+        this(checkSecret(secret, requireAuthentication), ttlSeconds, cacheSize, Clock.systemUTC());
+    }
+
+    TokenService(String secret, long ttlSeconds, long cacheSize, Clock clock) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    // 인증을 켰는데 secret 이 없거나 기본값이거나 너무 짧으면 시작하지 않는다. 누구나 토큰을 위조할 수 있기 때문이다
+    static String checkSecret(String secret, boolean requireAuthentication) {
+        if (!requireAuthentication) {
+            return secret;
+        }
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalStateException("app.security.token.secret must be set when app.security.require-authentication is true");
+        }
+        if (SHIPPED_SECRETS.contains(secret)) {
+            throw new IllegalStateException("app.security.token.secret must not be the shipped default when app.security.require-authentication is true");
+        }
+        if (secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("app.security.token.secret must be at least " + MIN_SECRET_BYTES + " bytes when app.security.require-authentication is true");
+        }
+        return secret;
+    }
+
+    public IssuedToken issue(Authentication authentication) {
+        long expiresAt = clock.instant().getEpochSecond() + ttlSeconds;
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        String payload = ENCODER.encodeToString(
+                String.join("|", authentication.getName(), Long.toString(expiresAt), authorities)
+                        .getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(payload + "." + ENCODER.encodeToString(sign(payload)), expiresAt);
+    }
+
+    // 서명이 맞지 않거나 만료된 토큰이면 empty
+    public Optional<Authentication> verify(String token) {
+        long now = clock.instant().getEpochSecond();
+        VerifiedToken cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached.expiresAt > now ? Optional.of(cached.authentication) : Optional.empty();
+        }
+
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, dot);
+        byte[] signature;
+        String[] claims;
+        try {
+            signature = DECODER.decode(token.substring(dot + 1));
+            claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        // 일치하는 앞부분의 길이에 따라 비교 시간이 달라지지 않도록 상수 시간으로 비교한다
+        if (claims.length != 3 || !MessageDigest.isEqual(sign(payload), signature)) {
+            return Optional.empty();
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(claims[1]);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        if (expiresAt <= now) {
+            return Optional.empty();
+        }
+
+        List<GrantedAuthority> authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(claims[2]);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(claims[0], null, authorities);
+        verified.put(token, new VerifiedToken(authentication, expiresAt));
+        return Optional.of(authentication);
+    }
+
+    // Mac 은 thread-safe 하지 않으므로 호출마다 만든다. 캐시 덕분에 토큰당 한 번 정도만 호출된다
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final Authentication authentication;
+        private final long expiresAt;
+
+        VerifiedToken(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
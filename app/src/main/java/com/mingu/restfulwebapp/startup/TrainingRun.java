@@ -0,0 +1,39 @@
+package com.mingu.restfulwebapp.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/*
+Docker 이미지를 만들 때 AppCDS 아카이브에 담을 클래스를 모으기 위한 실행.
+애플리케이션이 뜨면 첫 요청 경로(/api/users/{id})를 한 번 호출해서 관련 클래스까지 로드한 뒤 종료한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("app.startup.training-run")
+@RequiredArgsConstructor
+public class TrainingRun {
+
+    private final WebServerApplicationContext context;
+
+    @Value("${app.startup.training-path:/api/users/10001}")
+    private String trainingPath;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exit() {
+        String url = "http://localhost:" + context.getWebServer().getPort() + trainingPath;
+        try {
+            new RestTemplate().getForEntity(url, String.class);
+        } catch (RuntimeException e) {
+            log.warn("Training request to {} failed", url, e);
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,324 @@
+package com.mingu.restfulwebapp.user.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingu.restfulwebapp.conditional.VersionStamp;
+import com.mingu.restfulwebapp.export.NdjsonWriter;
+import com.mingu.restfulwebapp.link.LinkTemplate;
+import com.mingu.restfulwebapp.paging.Cursor;
+import com.mingu.restfulwebapp.paging.CursorPage;
+import com.mingu.restfulwebapp.post.Post;
+import com.mingu.restfulwebapp.exception.PostNotFoundException;
+import com.mingu.restfulwebapp.post.PostRepository;
+import com.mingu.restfulwebapp.post.PostIngestionQueue;
+import com.mingu.restfulwebapp.post.PostService;
+import com.mingu.restfulwebapp.projection.FieldSelection;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.exception.UserNotFoundException;
+import com.mingu.restfulwebapp.user.service.UserService;
+import com.mingu.restfulwebapp.user.stats.UserStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@Validated
+@RequiredArgsConstructor
+@RequestMapping("/api/users")
+public class UserController {
+
+    // 매핑은 클래스 로딩 시점에 한 번만 해석한다
+    private static final LinkTemplate ALL_USERS =
+            LinkTemplate.of(UserController.class, "retrieveAllUsers", String.class, Integer.class);
+    private static final LinkTemplate ALL_POSTS_OF_USER =
+            LinkTemplate.of(UserController.class, "retrieveAllPostsByUser", Long.class, String.class, Integer.class);
+
+    private final UserService userService;
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<PostIngestionQueue> postIngestionQueue;
+
+    @GetMapping("/all")
+    public CursorPage<User> retrieveAllUsers(@RequestParam(required = false) String after,
+                                             @RequestParam(required = false) Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        // 다음 페이지 존재 여부를 알기 위해 한 건을 더 조회한다
+        List<User> users = userService.getUsersAfter(Cursor.decode(after), pageSize + 1);
+
+        CursorPage<User> page = CursorPage.of(users, pageSize, User::getId);
+        if (page.hasNext()) {
+            page.add(linkTo(methodOn(this.getClass()).retrieveAllUsers(page.getNextCursor(), limit))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    /*
+    ?fields=name,joinDate 처럼 필요한 속성만 요청하면 해당 컬럼만 select 해서 엔티티 대신 Map 으로 응답한다.
+    id 는 cursor 를 위해 항상 포함되며, 선택할 수 없는 속성을 요청하면 400 으로 응답한다.
+     */
+    @GetMapping(value = "/all", params = "fields")
+    public CursorPage<Map<String, Object>> retrieveAllUserFields(@RequestParam String fields,
+                                                                 @RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<Map<String, Object>> rows = userService.getUserFieldsAfter(fields, Cursor.decode(after), pageSize + 1);
+
+        CursorPage<Map<String, Object>> page = CursorPage.of(rows, pageSize, FieldSelection::idOf);
+        if (page.hasNext()) {
+            page.add(linkTo(methodOn(this.getClass()).retrieveAllUserFields(fields, page.getNextCursor(), limit))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    /*
+    전체 사용자를 newline-delimited JSON 으로 내보낸다.
+    응답 본문은 DB 에서 읽는 즉시 스트림으로 쓰므로 데이터 건수와 무관하게 메모리 사용량이 일정하다.
+     */
+    @GetMapping(value = "/export", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter<User> writer = new NdjsonWriter<>(objectMapper, User.class, out);
+            userService.exportAll(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+                .body(body);
+    }
+
+    @GetMapping(value = "/posts/export", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter<Post> writer = new NdjsonWriter<>(objectMapper, Post.class, out);
+            postService.exportAll(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+                .body(body);
+    }
+
+    /*
+    ?ids=1,2,3 의 사용자를 한 번에 조회한다. 캐시에 없는 id 는 IN 쿼리 한 번으로 읽는다.
+    요청한 순서대로 응답하고 없는 id 는 빠지며, 한 번에 Cursor.MAX_LIMIT 개까지 요청할 수 있다.
+     */
+    @GetMapping(params = "ids")
+    public List<User> retrieveUsers(@RequestParam @Size(max = Cursor.MAX_LIMIT) List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+
+    @GetMapping("/{id}")
+    public EntityModel retrieveUser(@PathVariable Long id, WebRequest webRequest) {
+        Optional<VersionStamp> stamp = userService.getVersionStamp(id);
+        if (!stamp.isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+        // 클라이언트가 가진 버전과 같다면 엔티티를 조회/직렬화하지 않고 304 로 응답한다
+        if (webRequest.checkNotModified(stamp.get().toETag(id), stamp.get().lastModified())) {
+            return null;
+        }
+
+        Optional<User> user = userService.getUserById(id);
+        if (!user.isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+
+        /* HATEOAS */
+        EntityModel entityModel = EntityModel.of(user.get());
+        // 개별 사용자 조회에서 할 수 있는 추가 작업으로 '전체 사용자 조회' uri를 all-users 라는 이름으로 추가한다.
+        entityModel.add(ALL_USERS.expand("all-users"));
+        return entityModel;
+    }
+
+    // 목록과 같이 ?fields= 로 요청한 속성(과 id)만 조회한다. 엔티티가 아니므로 캐시와 ETag 를 거치지 않는다
+    @GetMapping(value = "/{id}", params = "fields")
+    public EntityModel<Map<String, Object>> retrieveUserFields(@PathVariable Long id, @RequestParam String fields) {
+        Map<String, Object> user = userService.getUserFields(id, fields)
+                .orElseThrow(() -> new UserNotFoundException(String.format("ID[%s] not found", id)));
+
+        EntityModel<Map<String, Object>> entityModel = EntityModel.of(user);
+        entityModel.add(ALL_USERS.expand("all-users"));
+        return entityModel;
+    }
+
+    @DeleteMapping("/{id}")
+    public void deleteUser(@PathVariable Long id) {
+        userService.removeUserById(id);
+    }
+
+    @PostMapping
+    public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
+        User savedUser = userService.create(user);
+        /*
+        생성 완료된 Resource를 조회할 수 있는 URI를 location 이라는 이름으로 헤더값에 실어서 보낸다.
+        ServletUriComponentBuilder는 uri를 생성해서 보낼 수 있는 클래스이다.
+         */
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(savedUser.getId())
+                .toUri();
+        return ResponseEntity.created(location).build();
+    }
+
+    // 대량 등록: 요청 한 번에 여러 사용자를 batch insert 로 저장하고 생성된 id 목록을 돌려준다
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Integer>> createUsers(@RequestBody List<@Valid User> users) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(userService.createAll(users));
+    }
+
+    // 게시물을 조회하거나 세지 않고 메모리의 카운터로 응답한다
+    @GetMapping("/{id}/stats")
+    public UserStats retrieveUserStats(@PathVariable Long id) {
+        if (!userService.getUserById(id).isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+        return userService.getPostStats(id);
+    }
+
+    @GetMapping("/{id}/posts")
+    public CursorPage<Post> retrieveAllPostsByUser(@PathVariable Long id,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer limit) {
+        // 삭제 표시된 사용자의 게시물은 정리될 때까지 남아 있으므로 사용자부터 확인한다. 사용자 조회는 캐시를 거친다
+        if (!userService.getUserById(id).isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+        int pageSize = Cursor.limit(limit);
+        List<Post> posts = postService.getPostsByUserAfter(id, Cursor.decode(after), pageSize + 1);
+
+        CursorPage<Post> page = CursorPage.of(posts, pageSize, Post::getId);
+        if (page.hasNext()) {
+            page.add(linkTo(methodOn(this.getClass()).retrieveAllPostsByUser(id, page.getNextCursor(), limit))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    @GetMapping(value = "/{id}/posts", params = "fields")
+    public CursorPage<Map<String, Object>> retrieveAllPostFieldsByUser(@PathVariable Long id,
+                                                                       @RequestParam String fields,
+                                                                       @RequestParam(required = false) String after,
+                                                                       @RequestParam(required = false) Integer limit) {
+        if (!userService.getUserById(id).isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+        int pageSize = Cursor.limit(limit);
+        List<Map<String, Object>> rows = postService.getPostFieldsByUserAfter(id, fields, Cursor.decode(after), pageSize + 1);
+
+        CursorPage<Map<String, Object>> page = CursorPage.of(rows, pageSize, FieldSelection::idOf);
+        if (page.hasNext()) {
+            page.add(linkTo(methodOn(this.getClass()).retrieveAllPostFieldsByUser(id, fields, page.getNextCursor(), limit))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return page;
+    }
+
+    @PostMapping("/{id}/posts")
+    public ResponseEntity<User> createPost(@PathVariable Long id, @Valid @RequestBody Post post) {
+        Optional<User> user = userService.getUserById(id);
+        if (!user.isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+
+        // 비동기 등록 모드(app.ingest.async)에서는 큐에 넣고 202 와 함께 처리 상태를 조회할 수 있는 uri 를 돌려준다
+        PostIngestionQueue ingestionQueue = postIngestionQueue.getIfAvailable();
+        if (ingestionQueue != null) {
+            String ticket = ingestionQueue.submit(id, post);
+            URI status = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/posts/ingestions/{ticket}")
+                    .buildAndExpand(ticket)
+                    .toUri();
+            return ResponseEntity.accepted().location(status).build();
+        }
+
+        post.setUser(user.get());
+        Post savedPost = postService.create(post);
+
+        /*
+        생성 완료된 Resource를 조회할 수 있는 URI를 location 이라는 이름으로 헤더값에 실어서 보낸다.
+        ServletUriComponentBuilder는 uri를 생성해서 보낼 수 있는 클래스이다.
+         */
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(savedPost.getId())
+                .toUri();
+        return ResponseEntity.created(location).build();
+    }
+
+    @PostMapping("/{id}/posts/bulk")
+    public ResponseEntity<List<Integer>> createPosts(@PathVariable Long id, @RequestBody List<@Valid Post> posts) {
+        Optional<User> user = userService.getUserById(id);
+        if (!user.isPresent()) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(postService.createAll(id, posts));
+    }
+
+    @GetMapping("/{userId}/posts/{postId}")
+    public EntityModel retrievePostByUser(@PathVariable Long userId, @PathVariable Long postId, WebRequest webRequest) {
+        Optional<User> user = userService.getUserById(userId);
+        if (!user.isPresent()) {
+            throw new UserNotFoundException(String.format("User ID[%s] not found", userId));
+        }
+
+        Optional<VersionStamp> stamp = postService.getVersionStamp(postId);
+        if (!stamp.isPresent()) {
+            throw new PostNotFoundException(String.format("Post ID[%s] not found", postId));
+        }
+        if (webRequest.checkNotModified(stamp.get().toETag(postId), stamp.get().lastModified())) {
+            return null;
+        }
+
+        Optional<Post> post = postService.getPostById(postId);
+        if (!post.isPresent()) {
+            throw new PostNotFoundException(String.format("Post ID[%s] not found", postId));
+        }
+
+        EntityModel entityModel = EntityModel.of(post.get());
+        entityModel.add(ALL_POSTS_OF_USER.expand("all-posts-of-user", userId));
+        return entityModel;
+    }
+
+    @GetMapping(value = "/{userId}/posts/{postId}", params = "fields")
+    public EntityModel<Map<String, Object>> retrievePostFieldsByUser(@PathVariable Long userId, @PathVariable Long postId,
+                                                                     @RequestParam String fields) {
+        if (!userService.getUserById(userId).isPresent()) {
+            throw new UserNotFoundException(String.format("User ID[%s] not found", userId));
+        }
+        Map<String, Object> post = postService.getPostFieldsByUser(userId, postId, fields)
+                .orElseThrow(() -> new PostNotFoundException(String.format("Post ID[%s] not found", postId)));
+
+        EntityModel<Map<String, Object>> entityModel = EntityModel.of(post);
+        entityModel.add(ALL_POSTS_OF_USER.expand("all-posts-of-user", userId));
+        return entityModel;
+    }
+
+    @DeleteMapping("/posts/{postId}")
+    public void deletePost(@PathVariable Long postId) {
+        Optional<Post> post = postService.getPostById(postId);
+        if (!post.isPresent()) {
+            throw new PostNotFoundException(String.format("Post ID[%s] not found", postId));
+        }
+        postService.removePostById(postId);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mingu.restfulwebapp.user.persistence;
+
+import com.mingu.restfulwebapp.conditional.VersionStamp;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.user.stats.UserStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
+
+    // keyset pagination: id 인덱스(PK)에서 범위 스캔만 하므로 페이지 깊이와 무관하게 비용이 일정하다
+    List<User> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    // 전체 내보내기용. 결과를 한 번에 메모리에 올리지 않도록 fetch size 단위로 읽어온다
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
+
+    // IdMembership 적재용. PK 인덱스만 읽는다
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id from User u")
+    Stream<Integer> streamAllIds();
+
+    @Query("select new com.mingu.restfulwebapp.conditional.VersionStamp(u.version, u.updatedAt) from User u where u.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Integer id);
+
+    /*
+    UserPostStats 의 주기적인 flush. 게시물 수는 증감분만 더하므로 여러 인스턴스가 같은 DB 를 써도 서로 덮어쓰지 않는다.
+    통계 컬럼만 바꾸므로 version / updatedAt (ETag) 은 그대로 둔다.
+     */
+    @Modifying
+    @Query("update User u set u.postCount = u.postCount + :delta, u.lastPostId = :lastPostId, u.lastPostAt = :lastPostAt where u.id = :id")
+    int addPostStats(@Param("id") Integer id, @Param("delta") long delta,
+                     @Param("lastPostId") Integer lastPostId, @Param("lastPostAt") Date lastPostAt);
+
+    // 시작 시 post 테이블로 통계 컬럼을 다시 계산한다. (user_id, id) 인덱스만 읽는다
+    @Modifying
+    @Query(nativeQuery = true, value = "update user u set "
+            + "post_count = (select count(*) from post p where p.user_id = u.id), "
+            + "last_post_id = (select max(p.id) from post p where p.user_id = u.id), "
+            + "last_post_at = (select p.updated_at from post p where p.id = (select max(p2.id) from post p2 where p2.user_id = u.id))")
+    int reconcilePostStats();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.mingu.restfulwebapp.user.stats.UserStats(u.id, u.postCount, u.lastPostId, u.lastPostAt) from User u where u.postCount > 0")
+    Stream<UserStats> streamPostStats();
+
+    /*
+    삭제 표시(tombstone)와 정리. @Where 로 가려진 row 를 다뤄야 하므로 native query 로 작성한다.
+    표시는 row 하나만 바꾸므로 게시물 수와 무관하게 바로 끝난다.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "update user set deleted = true where id = :id and deleted = false")
+    int tombstone(@Param("id") Integer id);
+
+    // 재시작 후 이어서 정리할 사용자. 시작할 때 한 번만 조회한다
+    @Query(nativeQuery = true, value = "select id from user where deleted = true order by id")
+    List<Integer> findTombstonedIds();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from user where id = :id and deleted = true")
+    int deleteTombstoned(@Param("id") Integer id);
+}
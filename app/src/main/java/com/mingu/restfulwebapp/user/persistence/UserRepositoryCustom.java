@@ -0,0 +1,22 @@
+package com.mingu.restfulwebapp.user.persistence;
+
+import com.mingu.restfulwebapp.projection.FieldSelection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    // password, ssn 은 ?fields= 로 선택할 수 없다
+    Set<String> SELECTABLE_FIELDS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList("id", "name", "joinDate")));
+
+    List<Map<String, Object>> findFieldsAfter(FieldSelection selection, Integer afterId, int limit);
+
+    Optional<Map<String, Object>> findFieldsById(FieldSelection selection, Integer id);
+}
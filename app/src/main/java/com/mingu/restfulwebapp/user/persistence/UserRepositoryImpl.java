@@ -0,0 +1,51 @@
+package com.mingu.restfulwebapp.user.persistence;
+
+import com.mingu.restfulwebapp.projection.FieldSelection;
+import com.mingu.restfulwebapp.user.User;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    // findByIdGreaterThanOrderByIdAsc 와 같은 keyset 조회이지만, 요청한 컬럼만 select 하고 엔티티를 만들지 않는다
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(FieldSelection selection, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        // 숫자 값을 그대로 넘기면 SQL 에 literal 로 박혀서 값마다 다른 쿼리가 되므로 bind parameter 를 쓴다
+        ParameterExpression<Integer> after = cb.parameter(Integer.class);
+        query.multiselect(selection.select(user))
+                .where(cb.greaterThan(user.get("id"), after))
+                .orderBy(cb.asc(user.get("id")));
+        return selection.toRows(entityManager.createQuery(query)
+                .setParameter(after, afterId)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(FieldSelection selection, Integer id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        ParameterExpression<Integer> userId = cb.parameter(Integer.class);
+        query.multiselect(selection.select(user))
+                .where(cb.equal(user.get("id"), userId));
+        return selection.toRows(entityManager.createQuery(query)
+                .setParameter(userId, id)
+                .getResultList()).stream().findFirst();
+    }
+}
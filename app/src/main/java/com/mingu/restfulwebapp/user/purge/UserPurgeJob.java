@@ -0,0 +1,180 @@
+package com.mingu.restfulwebapp.user.purge;
+
+import com.mingu.restfulwebapp.membership.IdMembership;
+import com.mingu.restfulwebapp.post.LatestPostFeed;
+import com.mingu.restfulwebapp.post.PostRepository;
+import com.mingu.restfulwebapp.post.PostSearchIndex;
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/*
+삭제 표시(tombstone)된 사용자의 게시물을 백그라운드에서 나눠서 지우고, 다 지우면 사용자 row 를 지운다.
+- 지우기 전에 게시물을 검색 색인과 최근 게시물 피드, 캐시에서 먼저 뺀다. DB 조회는 그 전에도 PostRepository.VISIBLE 로 걸러진다.
+- 한 chunk 는 id 를 chunk-size 건 찾아서 bulk delete 하는 짧은 트랜잭션이며, chunk 사이에 pause-millis 만큼 쉰다.
+- chunk 마다 커밋하므로 중간에 종료되어도 지워진 만큼은 남고, 시작할 때 tombstone 이 남은 사용자를 다시 큐에 넣어 이어서 지운다.
+- 정리하는 동안 추가로 등록된 게시물(비동기 등록 등)이 있으면 사용자 row 삭제가 실패하므로, 다시 큐에 넣어 처음부터 반복한다.
+ */
+@Slf4j
+@Component
+public class UserPurgeJob {
+
+    private static final long RETRY_MILLIS = 5000;
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final PostSearchIndex postSearchIndex;
+    private final IdMembership idMembership;
+    private final LatestPostFeed latestPostFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache posts;
+    private final Cache postVersions;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    private final BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    private final Counter postsDeleted;
+    private final Counter usersPurged;
+    private final Counter failures;
+    private final Timer chunks;
+
+    private Thread worker;
+
+    public UserPurgeJob(UserRepository userRepository, PostRepository postRepository, PostSearchIndex postSearchIndex,
+                        IdMembership idMembership, LatestPostFeed latestPostFeed, TransactionTemplate transactionTemplate,
+                        CacheManager cacheManager, MeterRegistry meterRegistry,
+                        @Value("${app.purge.chunk-size:500}") int chunkSize,
+                        @Value("${app.purge.pause-millis:50}") long pauseMillis) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.postSearchIndex = postSearchIndex;
+        this.idMembership = idMembership;
+        this.latestPostFeed = latestPostFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.posts = cacheManager.getCache("posts");
+        this.postVersions = cacheManager.getCache("postVersions");
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+
+        meterRegistry.gauge("user.purge.pending", pending, Set::size);
+        this.postsDeleted = meterRegistry.counter("user.purge.posts.deleted");
+        this.usersPurged = meterRegistry.counter("user.purge.users.completed");
+        this.failures = meterRegistry.counter("user.purge.failures");
+        this.chunks = Timer.builder("user.purge.chunk")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // tombstone 이 커밋된 뒤에 호출된다. 이미 큐에 있는 사용자는 다시 넣지 않는다
+    public void submit(Integer userId) {
+        if (pending.add(userId)) {
+            queue.add(userId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void resume() {
+        List<Integer> tombstoned = userRepository.findTombstonedIds();
+        tombstoned.forEach(this::submit);
+        if (!tombstoned.isEmpty()) {
+            log.info("Resuming purge of {} deleted users", tombstoned.size());
+        }
+        if (worker == null) {
+            worker = new Thread(this::drain, "user-purge");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer userId = queue.take();
+                try {
+                    purge(userId);
+                    pending.remove(userId);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Purge of user {} failed, retrying in {} ms: {}", userId, RETRY_MILLIS, e.getMessage());
+                    Thread.sleep(RETRY_MILLIS);
+                    queue.add(userId);
+                }
+            }
+        } catch (InterruptedException e) {
+            // 남은 사용자는 다음 시작 때 tombstone 으로 다시 찾는다
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void purge(Integer userId) throws InterruptedException {
+        unindex(userId);
+        List<Integer> ids;
+        while (!(ids = deleteChunk(userId)).isEmpty()) {
+            postsDeleted.increment(ids.size());
+            for (Integer id : ids) {
+                postSearchIndex.remove(id);
+                idMembership.removePost(id.longValue());
+                latestPostFeed.remove(id);
+                posts.evict(id.longValue());
+                postVersions.evict(id.longValue());
+            }
+            Thread.sleep(pauseMillis);
+        }
+        transactionTemplate.execute(status -> userRepository.deleteTombstoned(userId));
+        usersPurged.increment();
+        log.info("Purged deleted user {}", userId);
+    }
+
+    // 지우는 데는 chunk 마다 쉬면서 시간이 걸리므로, 그 전에 검색 색인과 피드, 캐시에서 먼저 뺀다. 읽기만 하므로 쉬지 않는다
+    private void unindex(Integer userId) {
+        List<Integer> ids;
+        Integer after = 0;
+        while (!(ids = postRepository.findIdsByUserIdAfter(userId, after, PageRequest.of(0, chunkSize))).isEmpty()) {
+            for (Integer id : ids) {
+                postSearchIndex.remove(id);
+                latestPostFeed.remove(id);
+                posts.evict(id.longValue());
+                postVersions.evict(id.longValue());
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<Integer> deleteChunk(Integer userId) {
+        return chunks.record(() -> transactionTemplate.execute(status -> {
+            List<Integer> ids = postRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return Collections.<Integer>emptyList();
+            }
+            postRepository.deleteAllByIds(ids);
+            return ids;
+        }));
+    }
+}
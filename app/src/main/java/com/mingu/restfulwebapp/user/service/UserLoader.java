@@ -0,0 +1,18 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.mingu.restfulwebapp.loader.CoalescingLoader;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserLoader extends CoalescingLoader<User> {
+
+    public UserLoader(UserRepository userRepository, MeterRegistry meterRegistry,
+                      @Value("${app.loader.window-micros:500}") long windowMicros,
+                      @Value("${app.loader.max-batch-size:100}") int maxBatchSize) {
+        super("users", userRepository::findAllById, User::getId, windowMicros, maxBatchSize, meterRegistry);
+    }
+}
@@ -0,0 +1,198 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.mingu.restfulwebapp.conditional.VersionStamp;
+import com.mingu.restfulwebapp.datasource.ReadYourWrites;
+import com.mingu.restfulwebapp.exception.UserNotFoundException;
+import com.mingu.restfulwebapp.membership.IdMembership;
+import com.mingu.restfulwebapp.post.LatestPostFeed;
+import com.mingu.restfulwebapp.projection.FieldSelection;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.transaction.AfterCommit;
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import com.mingu.restfulwebapp.user.purge.UserPurgeJob;
+import com.mingu.restfulwebapp.user.stats.UserPostStats;
+import com.mingu.restfulwebapp.user.stats.UserStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    // application.yml 의 hibernate.jdbc.batch_size 와 같은 값으로 flush/clear 한다
+    private static final int BULK_FLUSH_SIZE = 50;
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final IdMembership idMembership;
+    private final UserPostStats userPostStats;
+    private final UserPurgeJob userPurgeJob;
+    private final LatestPostFeed latestPostFeed;
+    private final UserLoader userLoader;
+    private final CacheManager cacheManager;
+
+    @Transactional(readOnly = true)
+    public List<User> getUsersAfter(Integer afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0 : afterId, PageRequest.of(0, limit));
+    }
+
+    // ?fields= 로 요청한 컬럼만 조회한다. 결과는 엔티티가 아니므로 캐시하지 않는다
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUserFieldsAfter(String fields, Integer afterId, int limit) {
+        FieldSelection selection = FieldSelection.parse(fields, UserRepository.SELECTABLE_FIELDS);
+        return userRepository.findFieldsAfter(selection, afterId == null ? 0 : afterId, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getUserFields(Long id, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, UserRepository.SELECTABLE_FIELDS);
+        return userRepository.findFieldsById(selection, id.intValue());
+    }
+
+    /*
+    insert 를 batch_size 단위로 묶어서 보내고, flush 할 때마다 영속성 컨텍스트를 비워서 대량 등록 중에도 메모리가 일정하게 유지되도록 한다.
+    조회 결과가 없던 id 도 캐시되므로 커밋 후 새로 만든 id 의 캐시를 비운다. (캐시 전체를 비우지 않는다)
+     */
+    @Transactional
+    public List<Integer> createAll(List<User> users) {
+        List<Integer> ids = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setId(null);
+            entityManager.persist(user);
+            idMembership.addUser(user.getId());
+            ids.add(user.getId());
+            if ((i + 1) % BULK_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        AfterCommit.run(() -> evict(ids));
+        return ids;
+    }
+
+    private void evict(List<Integer> ids) {
+        Cache users = cacheManager.getCache("users");
+        Cache userVersions = cacheManager.getCache("userVersions");
+        for (Integer id : ids) {
+            users.evict(id.longValue());
+            userVersions.evict(id.longValue());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                // 내보낸 엔티티는 바로 detach 해서 영속성 컨텍스트가 테이블 크기만큼 커지지 않도록 한다
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    /*
+    sync = true 이면 같은 key 에 대한 조회는 캐시 내부에서 원자적으로 수행된다.
+    삭제 시의 evict 는 진행 중인 조회가 끝날 때까지 기다렸다가 제거하므로, 삭제 이후에 삭제된 사용자가 다시 캐시에 들어가지 않는다.
+    캐시는 모든 클라이언트가 공유하므로, 복제 지연된 값이 캐시에 들어가지 않도록 primary 에서 읽는다.
+    IdMembership 에 없는 id 는 캐시에 넣지 않는다. 다른 인스턴스가 만든 id 일 수 있으므로 DB 에서 확인하고, 찾으면 IdMembership 에 더한다.
+    (app.membership.verify-misses=false 이면 DB 에도 묻지 않는다)
+    캐시 miss 는 UserLoader 가 다른 요청의 miss 와 모아 IN 쿼리로 읽는다. (primary)
+     */
+    @Cacheable(cacheNames = "users", key = "#id", sync = true, condition = "@idMembership.mightContainUser(#id)")
+    public Optional<User> getUserById(Long id) {
+        if (idMembership.knownAbsentUser(id)) {
+            return Optional.empty();
+        }
+        Optional<User> user = userLoader.load(id.intValue());
+        user.ifPresent(found -> idMembership.addUser(found.getId()));
+        return user;
+    }
+
+    /*
+    GET /api/users?ids= 용. 캐시에 있는 id 는 캐시에서 읽고, 나머지는 UserLoader 로 한 번에 읽는다.
+    요청한 순서대로 돌려주며 없는 id 는 빠진다.
+    한꺼번에 읽은 값은 캐시에 넣지 않는다. 삭제의 evict 와 원자적으로 묶이지 않아 삭제된 사용자가 다시 캐시될 수 있기 때문이다.
+     */
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Cache users = cacheManager.getCache("users");
+        Map<Integer, User> found = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Long id : requested) {
+            if (idMembership.knownAbsentUser(id)) {
+                continue;
+            }
+            Cache.ValueWrapper cached = users.get(id);
+            if (cached == null) {
+                misses.add(id.intValue());
+            } else if (cached.get() != null) {
+                found.put(id.intValue(), (User) cached.get());
+            }
+        }
+        found.putAll(userLoader.loadAll(misses));
+        found.keySet().forEach(idMembership::addUser);
+
+        List<User> result = new ArrayList<>(found.size());
+        for (Long id : requested) {
+            User user = found.get(id.intValue());
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Cacheable(cacheNames = "userVersions", key = "#id", sync = true, condition = "@idMembership.mightContainUser(#id)")
+    public Optional<VersionStamp> getVersionStamp(Long id) {
+        if (idMembership.knownAbsentUser(id)) {
+            return Optional.empty();
+        }
+        Optional<VersionStamp> stamp = ReadYourWrites.onPrimary(() -> userRepository.findVersionStampById(id.intValue()));
+        stamp.ifPresent(found -> idMembership.addUser(id.intValue()));
+        return stamp;
+    }
+
+    // 메모리의 카운터에서 읽으므로 DB 를 조회하지 않는다. 사용자 존재 여부는 호출하는 쪽에서 확인한다
+    public UserStats getPostStats(Long id) {
+        return userPostStats.get(id.intValue());
+    }
+
+    /*
+    삭제 표시만 하고 바로 돌아간다. 게시물 수와 무관하게 update 한 건이다.
+    게시물과 사용자 row 는 커밋 후 UserPurgeJob 이 chunk 단위로 지운다.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {"users", "userVersions"}, key = "#id")
+    public void removeUserById(Long id) {
+        if (userRepository.tombstone(id.intValue()) == 0) {
+            throw new UserNotFoundException(String.format("ID[%s] not found", id));
+        }
+        // 피드는 메모리만 훑으면 되므로 바로 빼고, 검색 색인은 게시물 id 를 읽어야 하므로 UserPurgeJob 이 지우기 전에 뺀다
+        AfterCommit.run(() -> {
+            idMembership.removeUser(id);
+            userPostStats.userRemoved(id.intValue());
+            latestPostFeed.removeUser(id.intValue());
+            userPurgeJob.submit(id.intValue());
+        });
+    }
+
+    // 조회 결과가 없던 id 도 캐시되므로, 새로 생성된 id 의 캐시를 비운다
+    @CacheEvict(cacheNames = {"users", "userVersions"}, key = "#result.id.longValue()")
+    public User create(User user) {
+        User savedUser = userRepository.save(user);
+        idMembership.addUser(savedUser.getId());
+        return savedUser;
+    }
+}
@@ -0,0 +1,175 @@
+package com.mingu.restfulwebapp.user.stats;
+
+import com.mingu.restfulwebapp.post.Post;
+import com.mingu.restfulwebapp.post.PostRepository;
+import com.mingu.restfulwebapp.transaction.AfterCommit;
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/*
+사용자별 게시물 통계(게시물 수, 마지막 게시물)를 메모리에서 유지한다. 조회는 map 조회 한 번이다.
+- 게시물 수는 LongAdder 로 더해서 동시에 여러 게시물이 등록되어도 한 카운터에서 경합하지 않는다.
+- 트랜잭션 안에서 등록/삭제되면 커밋된 후에 반영한다.
+- 주기적으로 증가분을 User 의 비정규화 컬럼에 반영하고, 시작할 때는 post 테이블로 컬럼과 메모리 값을 다시 맞춘다.
+다른 인스턴스에서 등록된 게시물은 그 인스턴스가 flush 한 뒤 이 인스턴스가 다시 시작해야 메모리에 보인다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserPostStats {
+
+    private final ConcurrentMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserStats get(Integer userId) {
+        Counter counter = counters.get(userId);
+        if (counter == null) {
+            return new UserStats(userId, 0, null, null);
+        }
+        LastPost lastPost = counter.lastPost.get();
+        return new UserStats(userId, counter.count(),
+                lastPost == null ? null : lastPost.id, lastPost == null ? null : lastPost.at);
+    }
+
+    public void postCreated(Integer userId, Integer postId) {
+        LastPost created = new LastPost(postId, new Date());
+        AfterCommit.run(() -> {
+            Counter counter = counter(userId);
+            counter.delta.increment();
+            counter.lastPost.accumulateAndGet(created, (current, post) -> current == null || post.id > current.id ? post : current);
+        });
+    }
+
+    // 마지막 게시물이 삭제되면 그 다음 게시물을 DB 에서 찾는다. 삭제는 드물기 때문에 조회를 가볍게 유지하는 쪽을 택한다
+    public void postRemoved(Integer userId, Integer postId) {
+        AfterCommit.run(() -> {
+            Counter counter = counter(userId);
+            counter.delta.decrement();
+            LastPost lastPost = counter.lastPost.get();
+            if (lastPost != null && lastPost.id.equals(postId)) {
+                counter.lastPost.compareAndSet(lastPost, findLastPost(userId));
+            }
+        });
+    }
+
+    public void userRemoved(Integer userId) {
+        counters.remove(userId);
+    }
+
+    // 시작 시 다시 맞추는 동안 이전 카운터의 증가분이 컬럼에 더해지지 않도록 reconcile 과 동시에 실행하지 않는다
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-millis:5000}")
+    public synchronized void flush() {
+        List<Pending> pending = new ArrayList<>();
+        counters.forEach((userId, counter) -> {
+            long total = counter.delta.sum();
+            LastPost lastPost = counter.lastPost.get();
+            if (total != counter.flushedDelta || lastPost != counter.flushedLastPost) {
+                pending.add(new Pending(userId, counter, total, lastPost));
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                for (Pending p : pending) {
+                    userRepository.addPostStats(p.userId, p.total - p.counter.flushedDelta,
+                            p.lastPost == null ? null : p.lastPost.id, p.lastPost == null ? null : p.lastPost.at);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // 반영하지 못한 증가분은 다음 flush 에 다시 시도한다
+            log.warn("Failed to flush post stats of {} users", pending.size(), e);
+            return;
+        }
+        for (Pending p : pending) {
+            p.counter.flushedDelta = p.total;
+            p.counter.flushedLastPost = p.lastPost;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconcile() {
+        int users = transactionTemplate.execute(status -> {
+            userRepository.reconcilePostStats();
+            counters.clear();
+            try (Stream<UserStats> stats = userRepository.streamPostStats()) {
+                stats.forEach(stat -> counters.put(stat.getUserId(), new Counter(stat.getPostCount(),
+                        stat.getLastPostId() == null ? null : new LastPost(stat.getLastPostId(), stat.getLastPostAt()))));
+            }
+            return counters.size();
+        });
+        log.info("Post stats reconciled for {} users", users);
+    }
+
+    private Counter counter(Integer userId) {
+        return counters.computeIfAbsent(userId, id -> new Counter(0, null));
+    }
+
+    private LastPost findLastPost(Integer userId) {
+        List<Post> posts = postRepository.findLatestByUserId(userId, PageRequest.of(0, 1));
+        return posts.isEmpty() ? null : new LastPost(posts.get(0).getId(), posts.get(0).getUpdatedAt());
+    }
+
+    private static class Counter {
+
+        // 시작 시 DB 에서 맞춘 값. 이후의 증감은 delta 에만 더한다
+        private final long base;
+        private final LongAdder delta = new LongAdder();
+        private final AtomicReference<LastPost> lastPost;
+
+        // flush 스레드만 읽고 쓴다
+        private long flushedDelta;
+        private LastPost flushedLastPost;
+
+        Counter(long base, LastPost lastPost) {
+            this.base = base;
+            this.lastPost = new AtomicReference<>(lastPost);
+            this.flushedLastPost = lastPost;
+        }
+
+        long count() {
+            return base + delta.sum();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class LastPost {
+        private final Integer id;
+        private final Date at;
+    }
+
+    @RequiredArgsConstructor
+    private static class Pending {
+        private final Integer userId;
+        private final Counter counter;
+        private final long total;
+        private final LastPost lastPost;
+    }
+}
@@ -0,0 +1,17 @@
+package com.mingu.restfulwebapp.user.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+// GET /api/users/{id}/stats 의 응답
+@Getter
+@AllArgsConstructor
+public class UserStats {
+
+    private final Integer userId;
+    private final long postCount;
+    private final Integer lastPostId;
+    private final Date lastPostAt;
+}
@@ -0,0 +1,6 @@
+insert into user (id, join_date, name, password, ssn, version, updated_at, post_count, last_post_id, last_post_at) values (10001, sysdate(), 'user1', 'test1', '701010-1111111', 0, current_timestamp(), 2, 20002, current_timestamp());
+insert into user (id, join_date, name, password, ssn, version, updated_at, post_count) values (10002, sysdate(), 'user2', 'test2', '801010-1111111', 0, current_timestamp(), 0);
+insert into user (id, join_date, name, password, ssn, version, updated_at, post_count) values (10003, sysdate(), 'user3', 'test3', '901010-1111111', 0, current_timestamp(), 0);
+
+insert into post (id, description, user_id, version, updated_at) values (20001, 'first post', 10001, 0, current_timestamp());
+insert into post (id, description, user_id, version, updated_at) values (20002, 'second post', 10001, 0, current_timestamp());
@@ -0,0 +1,70 @@
+package com.mingu.restfulwebapp.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mingu.restfulwebapp.user.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// CBOR/Smile 로 HATEOAS 응답, 요청 본문, 오류 응답을 주고받을 수 있는지 확인한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatConfigTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void entityModelIsRenderedAsHalInCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users/10001").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode user = cbor.readTree(body);
+        assertThat(user.get("name").asText()).isEqualTo("user1");
+        assertThat(user.at("/_links/all-users/href").asText()).endsWith("/api/users/all{?after,limit}");
+    }
+
+    @Test
+    void smileRequestBodyIsAccepted() throws Exception {
+        User user = new User();
+        user.setName("smile user");
+        user.setJoinDate(new Date(1_600_000_000_000L));
+        user.setPassword("pw");
+        user.setSsn("900101-1111111");
+
+        mockMvc.perform(post("/api/users").contentType(SMILE).content(smile.writeValueAsBytes(user)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void errorResponseIsEncodedInRequestedFormat() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users/999").accept(SMILE))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(smile.readTree(body).get("message").asText()).isEqualTo("ID[999] not found");
+    }
+}
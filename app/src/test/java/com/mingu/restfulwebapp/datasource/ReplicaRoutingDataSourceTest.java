@@ -0,0 +1,127 @@
+package com.mingu.restfulwebapp.datasource;
+
+import com.mingu.restfulwebapp.paging.Cursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+primary 와 다른 H2 DB 두 개를 복제본으로 붙이고, 연결할 수 없는 복제본 하나를 섞어 둔다.
+복제본은 시작할 때 한 번만 채우므로(feed 간격을 테스트보다 길게 둔다) 이후의 쓰기는 primary 에만 있다.
+읽기는 연결 가능한 복제본으로 번갈아 가고, 쓰기 이후 쿠키를 가진 요청의 읽기는 primary 로 가야 한다.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replicas[0].url=jdbc:h2:mem:replica1",
+        "app.datasource.replicas[1].url=jdbc:h2:mem:replica2",
+        "app.datasource.replicas[2].url=jdbc:h2:tcp://localhost:1/unreachable",
+        "app.datasource.replicas[2].connection-timeout-millis=250",
+        "app.datasource.feed-interval-millis=600000"
+})
+@ActiveProfiles("replicas")
+@AutoConfigureMockMvc
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void unreachableReplicaIsExcluded() {
+        ReplicaRoutingDataSource routing =
+                (ReplicaRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+        assertThat(routing.getHealthyReplicas()).containsExactly("replica-1", "replica-2");
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverHealthyReplicas() throws Exception {
+        double replica1 = reads("replica-1");
+        double replica2 = reads("replica-2");
+        double primary = reads(ReplicaRoutingDataSource.PRIMARY);
+
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/users/all")).andExpect(status().isOk());
+        }
+
+        assertThat(reads("replica-1") - replica1).isEqualTo(2);
+        assertThat(reads("replica-2") - replica2).isEqualTo(2);
+        assertThat(reads(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primary);
+    }
+
+    @Test
+    void readsAfterWriteArePinnedToPrimary() throws Exception {
+        Cookie pin = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"replica test\",\"joinDate\":\"2020-01-01T00:00:00.000+00:00\","
+                                + "\"password\":\"pw\",\"ssn\":\"900101-1111111\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE);
+
+        double replicas = reads("replica-1") + reads("replica-2");
+        double primary = reads(ReplicaRoutingDataSource.PRIMARY);
+
+        mockMvc.perform(get("/api/users/all").cookie(pin)).andExpect(status().isOk());
+
+        assertThat(reads(ReplicaRoutingDataSource.PRIMARY) - primary).isEqualTo(1);
+        assertThat(reads("replica-1") + reads("replica-2")).isEqualTo(replicas);
+    }
+
+    @Test
+    void writeIsVisibleOnlyOnPrimaryUntilFed() throws Exception {
+        MockHttpServletResponse created = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"lagging replica\",\"joinDate\":\"2020-01-01T00:00:00.000+00:00\","
+                                + "\"password\":\"pw\",\"ssn\":\"900101-1111111\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        Cookie pin = created.getCookie(ReadYourWrites.COOKIE);
+        String location = created.getHeader("Location");
+        String after = Cursor.encode(Integer.parseInt(location.substring(location.lastIndexOf('/') + 1)) - 1);
+
+        // 쿠키가 있으면 primary 에서 읽으므로 방금 등록한 사용자가 보인다
+        mockMvc.perform(get("/api/users/all").param("after", after).param("limit", "1").cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("lagging replica")));
+
+        // 쿠키가 없으면 아직 채워지지 않은 복제본에서 읽는다
+        mockMvc.perform(get("/api/users/all").param("after", after).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", not(hasItem("lagging replica"))));
+    }
+
+    @Test
+    void replicasAreFedFromPrimaryAtStartup() throws Exception {
+        mockMvc.perform(get("/api/users/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("user1"));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("datasource.routing").tag("target", target).tag("type", "read").counter().count();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mingu.restfulwebapp.link;
+
+import com.mingu.restfulwebapp.user.controller.UserController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/*
+LinkTemplate 이 기존 linkTo(methodOn(...)) 와 같은 링크를 만드는지 확인한다.
+linkTo 가 붙이는 affordance 는 HAL 응답에 나가지 않으므로 렌더링되는 값(href, rel, templated)만 비교한다.
+ */
+class LinkTemplateTest {
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/10001");
+        request.setServerName("localhost");
+        request.setServerPort(8009);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void allUsersMatchesLinkTo() {
+        LinkTemplate template = LinkTemplate.of(UserController.class, "retrieveAllUsers", String.class, Integer.class);
+
+        Link expected = linkTo(methodOn(UserController.class).retrieveAllUsers(null, null)).withRel("all-users");
+        Link actual = template.expand("all-users");
+
+        assertSameRendering(actual, expected);
+        assertThat(actual.getHref()).isEqualTo("http://localhost:8009/api/users/all{?after,limit}");
+        assertThat(actual.isTemplated()).isTrue();
+    }
+
+    @Test
+    void allPostsOfUserMatchesLinkTo() {
+        LinkTemplate template = LinkTemplate.of(UserController.class, "retrieveAllPostsByUser",
+                Long.class, String.class, Integer.class);
+
+        Link expected = linkTo(methodOn(UserController.class).retrieveAllPostsByUser(10001L, null, null))
+                .withRel("all-posts-of-user");
+
+        assertSameRendering(template.expand("all-posts-of-user", 10001L), expected);
+    }
+
+    private static void assertSameRendering(Link actual, Link expected) {
+        assertThat(actual.getHref()).isEqualTo(expected.getHref());
+        assertThat(actual.getRel()).isEqualTo(expected.getRel());
+        assertThat(actual.isTemplated()).isEqualTo(expected.isTemplated());
+        assertThat(actual.getVariableNames()).isEqualTo(expected.getVariableNames());
+    }
+}
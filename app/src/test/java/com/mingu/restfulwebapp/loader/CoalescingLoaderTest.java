@@ -0,0 +1,130 @@
+package com.mingu.restfulwebapp.loader;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingLoaderTest {
+
+    private static final long LONG_WINDOW_MICROS = TimeUnit.MILLISECONDS.toMicros(300);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsWithinWindowShareOneQuery() throws Exception {
+        CoalescingLoader<String> loader = loader(LONG_WINDOW_MICROS, 100, this::found);
+        List<Integer> ids = Arrays.asList(1, 1, 2, 2, 3, 3, 4, 4);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<String>>> results = new ArrayList<>();
+        for (Integer id : ids) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return loader.load(id);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).contains("v" + ids.get(i));
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder(1, 2, 3, 4);
+        assertThat(meterRegistry.get("loader.requests").counter().count()).isEqualTo(8);
+        assertThat(meterRegistry.get("loader.coalesced").counter().count()).isEqualTo(4);
+        DistributionSummary batchSizes = meterRegistry.get("loader.batch.size").summary();
+        assertThat(batchSizes.count()).isEqualTo(1);
+        assertThat(batchSizes.max()).isEqualTo(4);
+    }
+
+    @Test
+    void splitsAtMaxBatchSizeAndSkipsMissingIds() {
+        CoalescingLoader<String> loader = loader(0, 4, this::found);
+
+        assertThat(loader.loadAll(Arrays.asList(1, 2, 3, 1001, 4, 5, 6, 7, 8, 9)))
+                .containsOnlyKeys(1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(batches).extracting(List::size).containsExactly(4, 4, 2);
+    }
+
+    @Test
+    void failureIsPropagatedToEveryCallerInTheBatch() throws Exception {
+        CoalescingLoader<String> loader = loader(LONG_WINDOW_MICROS, 100, ids -> {
+            throw new IllegalStateException("database down");
+        });
+
+        Future<Optional<String>> first = callers.submit(() -> loader.load(1));
+        Future<Optional<String>> second = callers.submit(() -> loader.load(2));
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    // 이미 실행 중인 쿼리의 결과는 그 뒤에 시작한 조회와 나누지 않는다
+    @Test
+    void lookupAfterQueryStartedIssuesItsOwnQuery() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingLoader<String> loader = loader(0, 100, ids -> {
+            if (batches.size() == 1) {
+                running.countDown();
+                await(release);
+            }
+            return found(ids);
+        });
+
+        Future<Optional<String>> first = callers.submit(() -> loader.load(1));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Optional<String>> second = callers.submit(() -> loader.load(1));
+        assertThat(second.get(5, TimeUnit.SECONDS)).contains("v1");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).contains("v1");
+        assertThat(batches).hasSize(2);
+        assertThat(meterRegistry.get("loader.coalesced").counter().count()).isZero();
+    }
+
+    private CoalescingLoader<String> loader(long windowMicros, int maxBatchSize,
+                                            Function<List<Integer>, List<String>> query) {
+        return new CoalescingLoader<>("test", ids -> {
+            batches.add(ids);
+            return query.apply(ids);
+        }, value -> Integer.valueOf(value.substring(1)), windowMicros, maxBatchSize, meterRegistry);
+    }
+
+    // 1000 보다 큰 id 는 없는 것으로 본다
+    private List<String> found(List<Integer> ids) {
+        return ids.stream().filter(id -> id <= 1000).map(id -> "v" + id).collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
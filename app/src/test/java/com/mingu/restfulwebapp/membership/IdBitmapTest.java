@@ -0,0 +1,38 @@
+package com.mingu.restfulwebapp.membership;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdBitmapTest {
+
+    @Test
+    void tracksAddedAndRemovedIds() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(1);
+        bitmap.add(63);
+        bitmap.add(64);
+
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(63)).isTrue();
+        assertThat(bitmap.contains(64)).isTrue();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.contains(-1)).isFalse();
+
+        bitmap.remove(63);
+        assertThat(bitmap.contains(63)).isFalse();
+        assertThat(bitmap.contains(64)).isTrue();
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        IdBitmap bitmap = new IdBitmap();
+        long initialSize = bitmap.sizeInBytes();
+
+        bitmap.add(10_000_000);
+
+        assertThat(bitmap.contains(10_000_000)).isTrue();
+        assertThat(bitmap.contains(9_999_999)).isFalse();
+        assertThat(bitmap.sizeInBytes()).isGreaterThan(initialSize);
+    }
+}
@@ -0,0 +1,49 @@
+package com.mingu.restfulwebapp.membership;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 다른 인스턴스가 같은 DB 에 만든 사용자(이 인스턴스의 bitmap 에 없는 id)도 404 가 아니라 DB 에서 찾아 응답한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdMembershipFallbackTest {
+
+    private static final int FOREIGN_USER_ID = 876_543;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdMembership idMembership;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where id = ?", FOREIGN_USER_ID);
+        idMembership.removeUser((long) FOREIGN_USER_ID);
+    }
+
+    @Test
+    void idCreatedElsewhereIsFoundAndLearned() throws Exception {
+        mockMvc.perform(get("/api/users/" + FOREIGN_USER_ID)).andExpect(status().isNotFound());
+
+        // 서비스를 거치지 않고 넣으므로 bitmap 은 모른다
+        jdbcTemplate.update("insert into user (id, join_date, name, password, ssn, version, updated_at) "
+                + "values (?, sysdate(), 'foreign', 'pass', '000000-0000000', 0, current_timestamp())", FOREIGN_USER_ID);
+        assertThat(idMembership.mightContainUser((long) FOREIGN_USER_ID)).isFalse();
+
+        mockMvc.perform(get("/api/users/" + FOREIGN_USER_ID)).andExpect(status().isOk());
+        assertThat(idMembership.mightContainUser((long) FOREIGN_USER_ID)).isTrue();
+    }
+}
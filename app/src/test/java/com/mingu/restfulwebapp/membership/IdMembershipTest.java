@@ -0,0 +1,56 @@
+package com.mingu.restfulwebapp.membership;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 인스턴스가 하나일 때(verify-misses=false)는 시작 시 적재된 id 에 없는 조회가 SQL 없이 404 로 끝나야 한다
+@SpringBootTest(properties = "app.membership.verify-misses=false")
+@AutoConfigureMockMvc
+class IdMembershipTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IdMembership idMembership;
+
+    @Test
+    void knowsSeededIds() {
+        assertThat(idMembership.mightContainUser(10001L)).isTrue();
+        assertThat(idMembership.mightContainPost(20001L)).isTrue();
+        assertThat(idMembership.mightContainUser(987_654L)).isFalse();
+        assertThat(idMembership.mightContainPost(987_654L)).isFalse();
+    }
+
+    @Test
+    void missingIdsAreRejectedWithoutQueries() throws Exception {
+        // 게시물 경로는 사용자부터 조회하므로 미리 캐시에 올려 둔다
+        mockMvc.perform(get("/api/users/10001")).andExpect(status().isOk());
+        double usersBefore = totalStatements("/api/users/{id}");
+        double postsBefore = totalStatements("/api/users/{userId}/posts/{postId}");
+
+        mockMvc.perform(get("/api/users/987654")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/10001/posts/987654")).andExpect(status().isNotFound());
+
+        assertThat(totalStatements("/api/users/{id}")).isEqualTo(usersBefore);
+        assertThat(totalStatements("/api/users/{userId}/posts/{postId}")).isEqualTo(postsBefore);
+    }
+
+    // 같은 컨텍스트를 쓰는 다른 테스트의 요청도 섞여 있으므로 전후 합계를 비교한다
+    private double totalStatements(String uri) {
+        DistributionSummary summary = meterRegistry.find("http.server.requests.sql").tag("uri", uri).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
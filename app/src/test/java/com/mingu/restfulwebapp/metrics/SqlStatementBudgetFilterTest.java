@@ -0,0 +1,53 @@
+package com.mingu.restfulwebapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+budget 을 1 로 낮춰 두고, 사용자 목록(1 statement)과 사용자 단건 조회(버전 + 엔티티, 2 statement)를 비교한다.
+ */
+@SpringBootTest(properties = "app.sql.statement-budget=1")
+@AutoConfigureMockMvc
+class SqlStatementBudgetFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordsStatementsPerRequestAndFlagsBudgetOverruns() throws Exception {
+        mockMvc.perform(get("/api/users/all")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/10002")).andExpect(status().isOk());
+
+        DistributionSummary list = meterRegistry.get("http.server.requests.sql")
+                .tag("uri", "/api/users/all").summary();
+        assertThat(list.count()).isEqualTo(1);
+        assertThat(list.totalAmount()).isGreaterThan(0);
+        assertThat(meterRegistry.find("sql.statement.budget.exceeded")
+                .tag("uri", "/api/users/all").counter()).isNull();
+
+        DistributionSummary user = meterRegistry.get("http.server.requests.sql")
+                .tag("uri", "/api/users/{id}").summary();
+        assertThat(user.max()).isGreaterThan(1);
+        Counter exceeded = meterRegistry.get("sql.statement.budget.exceeded")
+                .tag("uri", "/api/users/{id}").counter();
+        assertThat(exceeded.count()).isEqualTo(1);
+    }
+
+    @Test
+    void publishesHibernateStatistics() {
+        assertThat(meterRegistry.find("hibernate.statements").functionCounter()).isNotNull();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.paging.Cursor;
+import com.mingu.restfulwebapp.paging.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatestPostFeedTest {
+
+    @Test
+    void pagesNewestFirstWithinWindow() {
+        LatestPostFeed feed = feedWith(8, 1, 5);
+
+        CursorPage<PostSummary> first = feed.read(null, 2);
+        assertThat(ids(first)).containsExactly(5, 4);
+        CursorPage<PostSummary> second = feed.read(Cursor.decode(first.getNextCursor()), 2);
+        assertThat(ids(second)).containsExactly(3, 2);
+        CursorPage<PostSummary> last = feed.read(Cursor.decode(second.getNextCursor()), 2);
+        assertThat(ids(last)).containsExactly(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void keepsOnlyTheLatestCapacityPosts() {
+        LatestPostFeed feed = feedWith(4, 1, 10);
+
+        assertThat(ids(feed.read(null, 20))).containsExactly(10, 9, 8, 7);
+    }
+
+    @Test
+    void addAllKeepsInsertionOrder() {
+        LatestPostFeed feed = feedWith(4, 1, 2);
+        feed.addAll(Arrays.asList(
+                new PostSummary(3, 1, "post 3", new Date()),
+                new PostSummary(4, 1, "post 4", new Date()),
+                new PostSummary(5, 1, "post 5", new Date())));
+        feed.add(new PostSummary(6, 1, "post 6", new Date()));
+
+        assertThat(ids(feed.read(null, 20))).containsExactly(6, 5, 4, 3);
+    }
+
+    @Test
+    void removedPostsAreSkipped() {
+        LatestPostFeed feed = feedWith(8, 1, 4);
+        feed.remove(3);
+
+        assertThat(ids(feed.read(null, 20))).containsExactly(4, 2, 1);
+    }
+
+    @Test
+    void postsOfRemovedUserAreSkipped() {
+        LatestPostFeed feed = new LatestPostFeed(8);
+        feed.add(new PostSummary(1, 10, "a", new Date()));
+        feed.add(new PostSummary(2, 20, "b", new Date()));
+        feed.add(new PostSummary(3, 10, "c", new Date()));
+        feed.removeUser(10);
+
+        assertThat(ids(feed.read(null, 20))).containsExactly(2);
+    }
+
+    @Test
+    void cursorThatFellOutOfWindowEndsPaging() {
+        LatestPostFeed feed = feedWith(4, 1, 4);
+        CursorPage<PostSummary> first = feed.read(null, 2);
+        for (int id = 5; id <= 12; id++) {
+            feed.add(new PostSummary(id, 1, "post " + id, new Date()));
+        }
+
+        CursorPage<PostSummary> next = feed.read(Cursor.decode(first.getNextCursor()), 2);
+        assertThat(next.getContent()).isEmpty();
+        assertThat(next.hasNext()).isFalse();
+    }
+
+    private static LatestPostFeed feedWith(int capacity, int fromId, int toId) {
+        LatestPostFeed feed = new LatestPostFeed(capacity);
+        for (int id = fromId; id <= toId; id++) {
+            feed.add(new PostSummary(id, 1, "post " + id, new Date()));
+        }
+        return feed;
+    }
+
+    private static List<Integer> ids(CursorPage<PostSummary> page) {
+        return page.getContent().stream().map(PostSummary::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.mingu.restfulwebapp.post;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 비동기 등록 모드에서 202 로 받은 상태 uri 를 따라가면 저장된 게시물을 찾을 수 있는지 확인한다
+@SpringBootTest(properties = "app.ingest.async=true")
+@AutoConfigureMockMvc
+class PostIngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostIngestionQueue postIngestionQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void createPostIsAcceptedAndWrittenInBackground() throws Exception {
+        String location = mockMvc.perform(post("/api/users/10002/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"queued post\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/api/posts/ingestions/")))
+                .andReturn().getResponse().getHeader("Location");
+        String ticket = location.substring(location.lastIndexOf('/') + 1);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (postIngestionQueue.getStatus(ticket).get().getState() == IngestionStatus.State.QUEUED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Integer postId = postIngestionQueue.getStatus(ticket).get().getPostId();
+        assertThat(postId).isNotNull();
+
+        mockMvc.perform(get("/api/posts/ingestions/" + ticket))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CREATED"))
+                .andExpect(jsonPath("$.postId").value(postId));
+        mockMvc.perform(get("/api/users/10002/posts/" + postId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("queued post"));
+    }
+
+    // 동기 등록과 같은 검증을 큐에 넣기 전에 거친다
+    @Test
+    void invalidPostIsRejectedBeforeQueueing() throws Exception {
+        double accepted = meterRegistry.get("post.ingest.accepted").counter().count();
+        StringBuilder oversized = new StringBuilder();
+        for (int i = 0; i < 256; i++) {
+            oversized.append('x');
+        }
+
+        mockMvc.perform(post("/api/users/10002/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/users/10002/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"" + oversized + "\"}"))
+                .andExpect(status().isBadRequest());
+        assertThat(meterRegistry.get("post.ingest.accepted").counter().count()).isEqualTo(accepted);
+    }
+
+    @Test
+    void unknownUserIsRejectedBeforeQueueing() throws Exception {
+        mockMvc.perform(post("/api/users/999/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"nobody\"}"))
+                .andExpect(status().isNotFound());
+    }
+}
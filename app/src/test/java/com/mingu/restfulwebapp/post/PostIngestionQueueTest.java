@@ -0,0 +1,61 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.exception.IngestionQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+writer 가 DB 쓰기에서 막혀 있는 동안 큐가 차면 요청을 거절하고,
+종료할 때는 큐에 남은 게시물까지 저장한 뒤에 멈추는지 확인한다.
+ */
+class PostIngestionQueueTest {
+
+    @Test
+    void rejectsWhenFullAndDrainsOnStop() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PostService postService = mock(PostService.class);
+        when(postService.createAll(anyList(), anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<Post> posts = invocation.getArgument(1);
+            return posts.size() == 1 ? Arrays.asList(1) : Arrays.asList(1, 2);
+        });
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PostIngestionQueue queue = new PostIngestionQueue(postService, meterRegistry, 1, 10);
+        queue.start();
+
+        String first = queue.submit(10001L, new Post());
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        // writer 가 첫 번째 게시물을 쓰는 중이므로 큐에는 한 건만 더 들어갈 수 있다
+        String second = queue.submit(10001L, new Post());
+        assertThatThrownBy(() -> queue.submit(10001L, new Post()))
+                .isInstanceOf(IngestionQueueFullException.class);
+        assertThat(queue.getStatus(second).get().getState()).isEqualTo(IngestionStatus.State.QUEUED);
+        assertThat(meterRegistry.get("post.ingest.queue.depth").gauge().value()).isEqualTo(1);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        queue.stop(stopped::countDown);
+        release.countDown();
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(queue.getStatus(first).get().getState()).isEqualTo(IngestionStatus.State.CREATED);
+        assertThat(queue.getStatus(second).get().getState()).isEqualTo(IngestionStatus.State.CREATED);
+        assertThat(meterRegistry.get("post.ingest.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("post.ingest.batch.size").summary().count()).isEqualTo(2);
+        assertThatThrownBy(() -> queue.submit(10001L, new Post()))
+                .isInstanceOf(IngestionQueueFullException.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mingu.restfulwebapp.post;
+
+import com.mingu.restfulwebapp.paging.Cursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 검색 cursor 는 클라이언트가 만들 수 있으므로, 너무 깊은 offset 은 색인을 건드리기 전에 400 으로 거절한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class PostSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void offsetWithinLimitIsAccepted() throws Exception {
+        mockMvc.perform(get("/api/posts/search").param("q", "post")
+                        .param("after", Cursor.encode(PostController.MAX_SEARCH_OFFSET)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void hugeOrOverflowingOffsetIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/posts/search").param("q", "post")
+                        .param("after", Cursor.encode(1_000_000_000)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/search").param("q", "post")
+                        .param("after", Cursor.encode(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,73 @@
+package com.mingu.restfulwebapp.post;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchIndexTest {
+
+    @Test
+    // 점수가 같으면 최근(id 가 큰) 게시물이 먼저 온다
+    void ranksPostsByRelevanceAndPages() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(1, "spring boot jpa");
+        index.index(2, "Spring, spring and more SPRING");
+        index.index(3, "hateoas links");
+        index.index(4, "첫번째 게시물 spring");
+
+        assertThat(ids(index.search("spring", 0, 10))).containsExactly(2, 4, 1);
+        assertThat(ids(index.search("spring", 1, 1))).containsExactly(4);
+        assertThat(ids(index.search("spring", 3, 10))).isEmpty();
+        assertThat(ids(index.search("게시물", 0, 10))).containsExactly(4);
+        assertThat(index.search("nothing", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void updatesIncrementally() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(1, "first post");
+        index.index(2, "second post");
+
+        index.remove(1);
+        assertThat(ids(index.search("post", 0, 10))).containsExactly(2);
+        assertThat(index.search("first", 0, 10)).isEmpty();
+
+        index.index(2, "rewritten");
+        assertThat(index.search("post", 0, 10)).isEmpty();
+        assertThat(ids(index.search("rewritten", 0, 10))).containsExactly(2);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void indexAllReplacesExistingDocuments() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(1, "old text");
+        Map<Integer, String> texts = new LinkedHashMap<>();
+        texts.put(1, "new text");
+        texts.put(2, "more text");
+        index.indexAll(texts);
+
+        assertThat(index.search("old", 0, 10)).isEmpty();
+        assertThat(ids(index.search("text", 0, 10))).containsExactlyInAnyOrder(1, 2);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    // 큐 크기는 offset 이 아니라 점수가 매겨진 게시물 수로 정해지고, offset + limit 가 넘쳐도 예외가 나지 않는다
+    @Test
+    void hugeOffsetReturnsEmptyPageWithoutOverflow() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(1, "spring boot");
+
+        assertThat(index.search("spring", 1_000_000_000, 10)).isEmpty();
+        assertThat(index.search("spring", Integer.MAX_VALUE - 1, 10)).isEmpty();
+    }
+
+    private static List<Integer> ids(List<PostSearchIndex.Hit> hits) {
+        return hits.stream().map(PostSearchIndex.Hit::getPostId).collect(Collectors.toList());
+    }
+}
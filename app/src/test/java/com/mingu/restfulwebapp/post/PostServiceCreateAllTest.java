@@ -0,0 +1,56 @@
+package com.mingu.restfulwebapp.post;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 비동기 등록의 batch 마다 호출되므로, 다른 게시물의 캐시는 남기고 새로 만든 id 만 비워야 한다
+@SpringBootTest
+class PostServiceCreateAllTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void evictsOnlyCreatedIds() {
+        assertThat(postService.getPostById(20001L)).isPresent();
+
+        Post post = new Post();
+        post.setDescription("bulk post");
+        List<Integer> ids = postService.createAll(10002L, Collections.singletonList(post));
+
+        assertThat(cacheManager.getCache("posts").get(20001L)).isNotNull();
+        assertThat(cacheManager.getCache("posts").get(ids.get(0).longValue())).isNull();
+        assertThat(postService.getPostById(ids.get(0).longValue())).isPresent();
+    }
+
+    // 롤백된 게시물은 검색 색인에 들어가지 않는다
+    @Test
+    void rolledBackPostsAreNotIndexed() {
+        transactionTemplate.execute(status -> {
+            Post post = new Post();
+            post.setDescription("rolledbackdescription");
+            postService.createAll(10002L, Collections.singletonList(post));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(postSearchIndex.search("rolledbackdescription", 0, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mingu.restfulwebapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 토큰을 요구하는 모드에서 로그인 -> 토큰으로 호출하는 흐름과 세션이 만들어지지 않는지 확인한다
+@SpringBootTest(properties = {
+        "app.security.require-authentication=true",
+        "app.security.token.secret=token-authentication-test-secret-0123456789"
+})
+@AutoConfigureMockMvc
+class TokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void requestsWithoutTokenAreUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/users/10001")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users/10001").header(HttpHeaders.AUTHORIZATION, "Bearer forged.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongPasswordIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"kenneth\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginIssuesTokenThatAuthenticatesWithoutSession() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"kenneth\",\"password\":\"test1234\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String token = objectMapper.readTree(login.getResponse().getContentAsByteArray()).get("token").asText();
+
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(get("/api/users/10001")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertThat(result.getRequest().getSession(false)).isNull();
+        }
+        assertThat(login.getRequest().getSession(false)).isNull();
+    }
+}
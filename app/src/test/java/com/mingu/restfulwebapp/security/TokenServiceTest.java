@@ -0,0 +1,97 @@
+package com.mingu.restfulwebapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenServiceTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2021-01-01T00:00:00Z"));
+    private final TokenService tokenService = new TokenService("test-secret", 60, 100, clock);
+
+    @Test
+    void issuedTokenVerifiesToSameUser() {
+        IssuedToken token = tokenService.issue(user());
+
+        Authentication authentication = tokenService.verify(token.getToken()).get();
+        assertThat(authentication.getName()).isEqualTo("kenneth");
+        assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities())).containsExactly("ROLE_USER");
+        assertThat(token.getExpiresAt()).isEqualTo(clock.instant().getEpochSecond() + 60);
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        String token = tokenService.issue(user()).getToken();
+        String foreign = new TokenService("other-secret", 60, 100, clock).issue(user()).getToken();
+
+        assertThat(tokenService.verify(token.substring(0, token.length() - 2) + "xx")).isEmpty();
+        assertThat(tokenService.verify(foreign)).isEmpty();
+        assertThat(tokenService.verify("not-a-token")).isEmpty();
+    }
+
+    // 캐시에 들어 있는 토큰도 만료 시각이 지나면 거절한다
+    @Test
+    void cachedTokenExpires() {
+        String token = tokenService.issue(user()).getToken();
+        assertThat(tokenService.verify(token)).isPresent();
+
+        clock.advanceSeconds(61);
+        assertThat(tokenService.verify(token)).isEmpty();
+    }
+
+    // 인증을 켠 경우에만 secret 을 검사한다
+    @Test
+    void weakSecretsAreRejectedWhenAuthenticationIsRequired() {
+        assertThatThrownBy(() -> TokenService.checkSecret("", true)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> TokenService.checkSecret("local-development-secret-change-me", true))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> TokenService.checkSecret("change-me-shared-secret", true))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> TokenService.checkSecret("short-secret", true)).isInstanceOf(IllegalStateException.class);
+
+        String strong = "0123456789abcdef0123456789abcdef";
+        assertThat(TokenService.checkSecret(strong, true)).isEqualTo(strong);
+        assertThat(TokenService.checkSecret("local-development-secret-change-me", false))
+                .isEqualTo("local-development-secret-change-me");
+    }
+
+    private static Authentication user() {
+        return new UsernamePasswordAuthenticationToken("kenneth", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
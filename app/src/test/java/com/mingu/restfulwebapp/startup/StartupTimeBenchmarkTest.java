@@ -0,0 +1,102 @@
+package com.mingu.restfulwebapp.startup;
+
+import com.mingu.restfulwebapp.MyappApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+fast-start 프로파일과 기본 프로파일의 cold start 를 비교한다. JVM 시작부터 /api/users/{id} 가 처음 200 으로 응답할 때까지의 시간이다.
+같은 JVM 에서 띄우면 두 번째 context 부터는 클래스 로딩과 JIT 가 끝나 있어서 차이가 거의 없으므로, 매번 새 JVM(Probe)을 띄운다.
+절대 시간은 장비에 따라 몇 배씩 달라지므로 상한으로 쓰지 않고, 두 프로파일을 번갈아 ROUNDS 번씩 띄워 가장 짧은 시간끼리 비교한다.
+fast-start 가 기본 프로파일의 max-ratio 배 안에 응답하지 못하면 시작 비용을 줄이던 설정이 빠진 것이다.
+-Dapp.startup.max-ratio, -Dapp.startup.rounds 로 조정할 수 있다. -Pbenchmark 로만 실행된다.
+(색인과 AppCDS 는 각각 -Pfast-start 빌드와 Dockerfile.fast-start 에서만 적용되므로 여기서는 프로파일 설정만 비교된다)
+ */
+@Slf4j
+@Tag("benchmark")
+class StartupTimeBenchmarkTest {
+
+    private static final double MAX_RATIO = Double.parseDouble(System.getProperty("app.startup.max-ratio", "0.9"));
+    private static final int ROUNDS = Integer.getInteger("app.startup.rounds", 2);
+    private static final long PROBE_TIMEOUT_SECONDS = 300;
+    private static final String RESULT_PREFIX = "startup-millis=";
+
+    @Test
+    void fastStartRespondsSoonerThanDefaultProfile() throws Exception {
+        long fastStart = Long.MAX_VALUE;
+        long standard = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            fastStart = Math.min(fastStart, coldStartMillis("fast-start"));
+            standard = Math.min(standard, coldStartMillis("default"));
+        }
+        log.info("Cold start to first /api/users/{{id}} response: fast-start {} ms, default {} ms (x{})",
+                fastStart, standard, String.format("%.2f", (double) fastStart / standard));
+
+        assertThat((double) fastStart).isLessThan(standard * MAX_RATIO);
+    }
+
+    private static long coldStartMillis(String profile) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        // 실행 방식과 무관한 devtools 재시작은 끈다
+        Process process = new ProcessBuilder(java, "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"), Probe.class.getName(), profile)
+                .redirectErrorStream(true)
+                .start();
+        Long millis = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    millis = Long.parseLong(line.substring(RESULT_PREFIX.length()));
+                }
+            }
+        } finally {
+            if (!process.waitFor(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+        assertThat(millis).as("%s probe exited with %s without a result", profile, process.exitValue()).isNotNull();
+        return millis;
+    }
+
+    // 새 JVM 에서 한 번 띄우고 첫 응답까지의 시간을 출력한 뒤 종료한다
+    public static class Probe {
+
+        public static void main(String[] args) {
+            String profile = args[0];
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(MyappApplication.class);
+            if (!"default".equals(profile)) {
+                builder.profiles(profile);
+            }
+            int status = 1;
+            try (ConfigurableApplicationContext context = builder.run("--server.port=0")) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                ResponseEntity<String> response = new RestTemplate()
+                        .getForEntity("http://localhost:" + port + "/api/users/10001", String.class);
+                long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                if (response.getStatusCode() == HttpStatus.OK) {
+                    System.out.println(RESULT_PREFIX + millis);
+                    status = 0;
+                }
+            }
+            System.exit(status);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mingu.restfulwebapp.startup;
+
+import com.mingu.restfulwebapp.MyappApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+fast-start 프로파일로 애플리케이션을 띄우고 /api/users/{id} 가 200 으로 응답하는지 확인한다. (lazy initialization 으로 빠진 빈이 없는지)
+같은 JVM 에서 다른 테스트가 이미 클래스를 로드했으므로 시간은 기록만 한다. 기본 프로파일과의 시작 시간 비교는 StartupTimeBenchmarkTest
+ */
+@Slf4j
+class StartupTimeTest {
+
+    @Test
+    void fastStartServesFirstUserRequest() {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MyappApplication.class)
+                .profiles("fast-start")
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:startup-time")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ResponseEntity<String> response = new RestTemplate()
+                    .getForEntity("http://localhost:" + port + "/api/users/10001", String.class);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            log.info("First /api/users/{{id}} response after {} ms", elapsed.toMillis());
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mingu.restfulwebapp.user.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 단건 조회는 version 으로 ETag 를 만들고, 같은 ETag 로 다시 조회하면 엔티티 없이 304 로 응답한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String location = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"conditional\",\"joinDate\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        userId = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where id = ?", userId);
+    }
+
+    @Test
+    void firstGetHasValidators() throws Exception {
+        mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + userId + "-0\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void sameETagIsNotModified() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void updatedUserIsServedAgain() throws Exception {
+        String etag = etag();
+
+        // 수정 API 가 없으므로 수정된 것처럼 version 을 올리고 캐시를 비운다
+        jdbcTemplate.update("update user set version = version + 1, updated_at = current_timestamp() where id = ?", userId);
+        cacheManager.getCache("users").evict((long) userId);
+        cacheManager.getCache("userVersions").evict((long) userId);
+
+        MvcResult result = mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(result.getResponse().getContentAsString()).contains("\"name\":\"conditional\"");
+    }
+
+    @Test
+    void deletedUserNoLongerMatches() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(delete("/api/users/" + userId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    private String etag() throws Exception {
+        return mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,92 @@
+package com.mingu.restfulwebapp.user.controller;
+
+import com.mingu.restfulwebapp.paging.Cursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ?fields= 로 요청한 속성(과 id)만 응답에 포함되는지 확인한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerFieldsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void usersContainOnlyRequestedFields() throws Exception {
+        // 다른 테스트에서 등록한 사용자(id < 10001)를 건너뛰고 data.sql 의 사용자부터 조회한다
+        mockMvc.perform(get("/api/users/all").param("fields", "name").param("limit", "2")
+                        .param("after", Cursor.encode(10000)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id").value(10001))
+                .andExpect(jsonPath("$.content[0].name").value("user1"))
+                .andExpect(jsonPath("$.content[0].joinDate").doesNotExist())
+                .andExpect(jsonPath("$.content[0].password").doesNotExist())
+                .andExpect(jsonPath("$._links.next.href", containsString("fields=name")));
+    }
+
+    @Test
+    void postsContainOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/users/10001/posts").param("fields", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(20001))
+                .andExpect(jsonPath("$.content[0].description").exists())
+                .andExpect(jsonPath("$.content[0].version").doesNotExist());
+    }
+
+    @Test
+    void singleUserContainsOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/users/10001").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(10001))
+                .andExpect(jsonPath("$.name").value("user1"))
+                .andExpect(jsonPath("$.joinDate").doesNotExist())
+                .andExpect(jsonPath("$.ssn").doesNotExist())
+                .andExpect(jsonPath("$._links.all-users.href").exists());
+        mockMvc.perform(get("/api/users/999").param("fields", "name"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void singlePostContainsOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/users/10001/posts/20001").param("fields", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(20001))
+                .andExpect(jsonPath("$.description").exists())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(jsonPath("$._links.all-posts-of-user.href").exists());
+        // 다른 사용자의 게시물이거나 없는 사용자이면 404
+        mockMvc.perform(get("/api/users/10002/posts/20001").param("fields", "description"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/999/posts/20001").param("fields", "description"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownOrHiddenFieldIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/all").param("fields", "name,ssn"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/10001/posts").param("fields", "user"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/10001").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/10001/posts/20001").param("fields", "user"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void postsOfUnknownUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/999/posts").param("fields", "description"))
+                .andExpect(status().isNotFound());
+    }
+}
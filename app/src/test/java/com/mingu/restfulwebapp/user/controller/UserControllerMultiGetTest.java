@@ -0,0 +1,70 @@
+package com.mingu.restfulwebapp.user.controller;
+
+import com.mingu.restfulwebapp.paging.Cursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ?ids= 다건 조회는 요청한 순서대로, 없는 id 를 빼고 응답한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerMultiGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void usersInRequestedOrderWithoutMissingIds() throws Exception {
+        cacheManager.getCache("users").clear();
+        long batches = batchCount();
+
+        mockMvc.perform(get("/api/users").param("ids", "10003,999,10001,10003"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].id", contains(10003, 10001)))
+                .andExpect(jsonPath("$[0].name").value("user3"));
+
+        // 캐시에 없는 id 는 IN 쿼리 한 번으로 읽는다
+        assertThat(batchCount()).isEqualTo(batches + 1);
+    }
+
+    @Test
+    void postsInRequestedOrderWithoutMissingIds() throws Exception {
+        mockMvc.perform(get("/api/posts").param("ids", "20002,29999,20001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(20002, 20001)));
+    }
+
+    @Test
+    void tooManyIdsIsBadRequest() throws Exception {
+        String ids = IntStream.rangeClosed(1, Cursor.MAX_LIMIT + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/users").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long batchCount() {
+        return meterRegistry.get("loader.batch.size").tag("loader", "users").summary().count();
+    }
+}
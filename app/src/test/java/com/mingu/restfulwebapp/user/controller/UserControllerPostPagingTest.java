@@ -0,0 +1,107 @@
+package com.mingu.restfulwebapp.user.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 사용자별 게시물을 cursor 로 이어 읽으면 그 사용자의 게시물만 id 순서로 빠짐없이 한 번씩 받는다
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerPostPagingTest {
+
+    private static final int POSTS = 11;
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int userId;
+    private int otherUserId;
+    private final List<Integer> postIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId = createUser("paging");
+        otherUserId = createUser("paging-other");
+        // 두 사용자의 게시물 id 가 섞이도록 번갈아 등록한다
+        for (int i = 0; i < POSTS; i++) {
+            postIds.add(createPost(userId, "post " + i));
+            createPost(otherUserId, "other post " + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from post where user_id in (?, ?)", userId, otherUserId);
+        jdbcTemplate.update("delete from user where id in (?, ?)", userId, otherUserId);
+    }
+
+    @Test
+    void pagesThroughOwnPostsInIdOrder() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        JsonNode page;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/users/" + userId + "/posts")
+                    .param("limit", String.valueOf(PAGE_SIZE));
+            if (after != null) {
+                request.param("after", after);
+            }
+            page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            pages++;
+
+            assertThat(page.get("content").size()).isLessThanOrEqualTo(PAGE_SIZE);
+            page.get("content").forEach(post -> ids.add(post.get("id").asInt()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            // 다음 페이지가 있을 때만 next 링크를 준다
+            assertThat(page.at("/_links/next/href").isMissingNode()).isEqualTo(after == null);
+        } while (after != null && pages <= POSTS);
+
+        assertThat(pages).isEqualTo((POSTS + PAGE_SIZE - 1) / PAGE_SIZE);
+        assertThat(ids).isSorted().doesNotHaveDuplicates().containsExactlyElementsOf(postIds);
+    }
+
+    private int createUser(String name) throws Exception {
+        String location = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"joinDate\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        return Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private int createPost(int userId, String description) throws Exception {
+        String ids = mockMvc.perform(post("/api/users/" + userId + "/posts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"description\":\"" + description + "\"}]"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(ids.replaceAll("[\\[\\]]", ""));
+    }
+}
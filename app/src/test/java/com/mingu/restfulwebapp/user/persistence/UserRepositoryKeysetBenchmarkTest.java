@@ -0,0 +1,77 @@
+package com.mingu.restfulwebapp.user.persistence;
+
+import com.mingu.restfulwebapp.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+수백만 건의 사용자 테이블에서 첫 페이지와 10,000 번째 페이지의 조회 시간을 비교한다.
+keyset 방식은 페이지 깊이와 무관하게 비용이 일정해야 하고, offset 방식은 비교용으로만 측정한다.
+-Dbenchmark.users 로 데이터 건수를 조정할 수 있다. -Pbenchmark 로만 실행된다. (동작 확인은 UserRepositoryKeysetTest)
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+class UserRepositoryKeysetBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int FIRST_ID = 100_001;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into user (id, join_date, name, password, ssn) "
+                + "select x, sysdate(), concat('user', x), 'pass', '000000-0000000' "
+                + "from system_range(?, ?)", FIRST_ID, FIRST_ID + USERS - 1);
+    }
+
+    @Test
+    void keysetPageCostDoesNotDependOnDepth() {
+        Integer firstPageCursor = 0;
+        Integer deepPageCursor = FIRST_ID + (DEEP_PAGE - 1) * PAGE_SIZE - 1;
+
+        long firstPage = measure(() -> userRepository.findByIdGreaterThanOrderByIdAsc(firstPageCursor, PageRequest.of(0, PAGE_SIZE)));
+        long deepPage = measure(() -> userRepository.findByIdGreaterThanOrderByIdAsc(deepPageCursor, PageRequest.of(0, PAGE_SIZE)));
+        long offsetDeepPage = measure(() -> userRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE)).getContent());
+
+        log.info("users={} keyset page 1: {} us, keyset page {}: {} us, offset page {}: {} us",
+                USERS, firstPage / 1000, DEEP_PAGE, deepPage / 1000, DEEP_PAGE, offsetDeepPage / 1000);
+
+        List<User> page = userRepository.findByIdGreaterThanOrderByIdAsc(deepPageCursor, PageRequest.of(0, PAGE_SIZE));
+        assertThat(page).hasSize(PAGE_SIZE);
+        assertThat(page.get(0).getId()).isEqualTo(deepPageCursor + 1);
+        // 측정 오차를 감안해도 깊은 페이지가 첫 페이지보다 크게 느려져서는 안 된다
+        assertThat(deepPage).isLessThan(Math.max(firstPage * 5, firstPage + 2_000_000L));
+    }
+
+    // warm-up 이후 ITERATIONS 회 반복한 평균 시간(ns)
+    private long measure(Supplier<List<User>> query) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - started) / ITERATIONS;
+    }
+}
@@ -0,0 +1,56 @@
+package com.mingu.restfulwebapp.user.persistence;
+
+import com.mingu.restfulwebapp.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// cursor 를 이어 가며 끝까지 읽으면 모든 사용자를 id 순서로 한 번씩 받는다. 시간 측정은 UserRepositoryKeysetBenchmarkTest
+@DataJpaTest
+class UserRepositoryKeysetTest {
+
+    private static final int USERS = 95;
+    private static final int PAGE_SIZE = 20;
+    private static final int FIRST_ID = 100_001;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into user (id, join_date, name, password, ssn) "
+                + "select x, sysdate(), concat('user', x), 'pass', '000000-0000000' "
+                + "from system_range(?, ?)", FIRST_ID, FIRST_ID + USERS - 1);
+    }
+
+    @Test
+    void pagesThroughAllUsersInIdOrder() {
+        List<Integer> ids = new ArrayList<>();
+        // data.sql 의 사용자는 FIRST_ID 보다 작으므로 그 다음부터 읽는다
+        Integer cursor = FIRST_ID - 1;
+        List<User> page;
+        do {
+            page = userRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, PAGE_SIZE));
+            assertThat(page.size()).isLessThanOrEqualTo(PAGE_SIZE);
+            page.forEach(user -> ids.add(user.getId()));
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        assertThat(ids).hasSize(USERS).isSorted();
+        assertThat(ids.get(0)).isEqualTo(FIRST_ID);
+        assertThat(ids.get(USERS - 1)).isEqualTo(FIRST_ID + USERS - 1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mingu.restfulwebapp.user.purge;
+
+import com.mingu.restfulwebapp.post.PostService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// UserPurgeJob 이 지우기 전이라도 삭제 표시된 사용자의 게시물은 조회되지 않아야 한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class TombstonedUserPostsTest {
+
+    private static final String TERM = "tombstonedpostterm";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostService postService;
+
+    private int userId;
+    private int postId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String location = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"tombstoned\",\"joinDate\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        userId = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+        String ids = mockMvc.perform(post("/api/users/" + userId + "/posts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"description\":\"" + TERM + "\"}]"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        postId = Integer.parseInt(ids.replaceAll("[\\[\\]]", ""));
+
+        // 퍼지 작업이 돌지 않도록 API 대신 삭제 표시만 남긴다
+        jdbcTemplate.update("update user set deleted = true where id = ?", userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        postService.removePostById((long) postId);
+        jdbcTemplate.update("delete from user where id = ?", userId);
+    }
+
+    @Test
+    void multiGetSkipsPostsOfDeletedUser() throws Exception {
+        mockMvc.perform(get("/api/posts").param("ids", postId + ",20001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(20001));
+    }
+
+    @Test
+    void searchSkipsPostsOfDeletedUser() throws Exception {
+        mockMvc.perform(get("/api/posts/search").param("q", TERM))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    void exportSkipsPostsOfDeletedUser() {
+        List<Integer> exported = new ArrayList<>();
+        postService.exportAll(post -> exported.add(post.getId()));
+
+        assertThat(exported).contains(20001).doesNotContain(postId);
+    }
+}
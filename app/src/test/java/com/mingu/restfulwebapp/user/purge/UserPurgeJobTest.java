@@ -0,0 +1,98 @@
+package com.mingu.restfulwebapp.user.purge;
+
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// chunk 를 작게 잡아서 여러 번에 나눠 지워지는지 확인한다
+@SpringBootTest(properties = {"app.purge.chunk-size=2", "app.purge.pause-millis=0"})
+@AutoConfigureMockMvc
+class UserPurgeJobTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserPurgeJob userPurgeJob;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deleteTombstonesUserAndPurgesPostsInChunks() throws Exception {
+        int userId = createUserWithPosts("purge-user", 5);
+        double chunksBefore = meterRegistry.get("user.purge.chunk").timer().count();
+
+        mockMvc.perform(delete("/api/users/" + userId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + userId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/" + userId + "/posts")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/users/" + userId)).andExpect(status().isNotFound());
+
+        awaitPurged(userId);
+        // 2 + 2 + 1 건을 지우고, 빈 chunk 로 끝난다
+        assertThat(meterRegistry.get("user.purge.chunk").timer().count() - chunksBefore).isEqualTo(4);
+        assertThat(meterRegistry.get("user.purge.posts.deleted").counter().count()).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void resumesTombstonesLeftFromPreviousRun() throws Exception {
+        int userId = createUserWithPosts("resume-user", 3);
+        // 이전 실행에서 표시만 되고 정리되지 않은 상태
+        jdbcTemplate.update("update user set deleted = true where id = ?", userId);
+        assertThat(userRepository.findById(userId)).isEmpty();
+
+        userPurgeJob.resume();
+
+        awaitPurged(userId);
+    }
+
+    private int createUserWithPosts(String name, int posts) throws Exception {
+        String location = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"joinDate\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        int userId = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < posts; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"description\":\"post ").append(i).append("\"}");
+        }
+        mockMvc.perform(post("/api/users/" + userId + "/posts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.append("]").toString()))
+                .andExpect(status().isCreated());
+        return userId;
+    }
+
+    private void awaitPurged(int userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countRows(userId) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from post where user_id = ?", Long.class, userId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from user where id = ?", Long.class, userId)).isZero();
+    }
+
+    private long countRows(int userId) {
+        return jdbcTemplate.queryForObject("select count(*) from post where user_id = ?", Long.class, userId)
+                + jdbcTemplate.queryForObject("select count(*) from user where id = ?", Long.class, userId);
+    }
+}
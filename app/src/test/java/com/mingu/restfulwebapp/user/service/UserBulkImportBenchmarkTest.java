@@ -0,0 +1,84 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.mingu.restfulwebapp.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+요청마다 한 건씩 등록하는 create 와 batch insert 를 사용하는 createAll 의 초당 처리 건수를 비교한다.
+-Dbenchmark.bulk.users 로 건수를, -Dbenchmark.bulk.min-speedup 으로 요구하는 배율을 조정할 수 있다. -Pbenchmark 로만 실행된다. (동작 확인은 UserServiceCreateAllTest)
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class UserBulkImportBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("benchmark.bulk.users", 3_000);
+    // 목표는 10 배이다. (H2 in-memory 에서 약 10 배) 측정 오차를 감안해서 절반을 하한으로 둔다
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("benchmark.bulk.min-speedup", "5"));
+    private static final String NAME_PREFIX = "bulk-user-";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where name like ?", NAME_PREFIX + "%");
+    }
+
+    @Test
+    void bulkImportReachesMinSpeedupOverSingleCreate() {
+        // warm-up
+        userService.createAll(newUsers(500));
+        for (User user : newUsers(500)) {
+            userService.create(user);
+        }
+
+        List<User> singles = newUsers(USERS);
+        long started = System.nanoTime();
+        for (User user : singles) {
+            userService.create(user);
+        }
+        double singleRowsPerSec = USERS / seconds(started);
+
+        List<User> bulk = newUsers(USERS);
+        started = System.nanoTime();
+        List<Integer> ids = userService.createAll(bulk);
+        double bulkRowsPerSec = USERS / seconds(started);
+
+        log.info("users={} single create: {} rows/s, bulk create: {} rows/s (x{})", USERS,
+                String.format("%.0f", singleRowsPerSec), String.format("%.0f", bulkRowsPerSec),
+                String.format("%.1f", bulkRowsPerSec / singleRowsPerSec));
+        assertThat(ids).hasSize(USERS).doesNotContainNull();
+        assertThat(bulkRowsPerSec / singleRowsPerSec).isGreaterThanOrEqualTo(MIN_SPEEDUP);
+    }
+
+    private static double seconds(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+    }
+
+    private static List<User> newUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName(NAME_PREFIX + i);
+            user.setPassword("pass");
+            user.setSsn("000000-0000000");
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.mingu.restfulwebapp.user.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+여러 reader 가 같은 사용자를 계속 조회하는 동안 사용자를 삭제한다.
+removeUserById 가 반환된 이후에 시작된 조회는 캐시를 거치더라도 삭제된 사용자를 보면 안 된다.
+ */
+@SpringBootTest
+class UserServiceCacheConcurrencyTest {
+
+    private static final int ROUNDS = 30;
+    private static final int READERS = 4;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void readersNeverSeeDeletedUserAfterDeleteReturns() throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        AtomicInteger staleReads = new AtomicInteger();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long id = userService.create(newUser(round)).getId().longValue();
+                assertThat(userService.getUserById(id)).isPresent();
+
+                AtomicBoolean deleted = new AtomicBoolean();
+                AtomicBoolean stop = new AtomicBoolean();
+                CountDownLatch started = new CountDownLatch(READERS);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < READERS; i++) {
+                    futures.add(readers.submit(() -> {
+                        started.countDown();
+                        while (!stop.get()) {
+                            boolean afterDelete = deleted.get();
+                            if (userService.getUserById(id).isPresent() && afterDelete) {
+                                staleReads.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+
+                started.await(5, TimeUnit.SECONDS);
+                userService.removeUserById(id);
+                deleted.set(true);
+                Thread.sleep(20);
+                stop.set(true);
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+                assertThat(userService.getUserById(id)).isEmpty();
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        assertThat(staleReads.get()).isZero();
+    }
+
+    private User newUser(int round) {
+        User user = new User();
+        user.setName("cache-user-" + round);
+        user.setPassword("pass");
+        user.setSsn("000000-0000000");
+        return user;
+    }
+}
@@ -0,0 +1,56 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.mingu.restfulwebapp.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// flush 단위를 넘는 건수도 요청한 순서대로 등록되고, 다른 사용자의 캐시는 남긴다. 처리량 측정은 UserBulkImportBenchmarkTest
+@SpringBootTest
+class UserServiceCreateAllTest {
+
+    private static final int USERS = 120;
+    private static final String NAME_PREFIX = "create-all-user-";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where name like ?", NAME_PREFIX + "%");
+    }
+
+    @Test
+    void createsUsersInOrderAndEvictsOnlyCreatedIds() {
+        assertThat(userService.getUserById(10001L)).isPresent();
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName(NAME_PREFIX + i);
+            user.setPassword("pass");
+            user.setSsn("000000-0000000");
+            users.add(user);
+        }
+        List<Integer> ids = userService.createAll(users);
+
+        assertThat(ids).hasSize(USERS).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(cacheManager.getCache("users").get(10001L)).isNotNull();
+        assertThat(userService.getUserById(ids.get(0).longValue()).get().getName()).isEqualTo(NAME_PREFIX + 0);
+        assertThat(userService.getUserById(ids.get(USERS - 1).longValue()).get().getName()).isEqualTo(NAME_PREFIX + (USERS - 1));
+    }
+}
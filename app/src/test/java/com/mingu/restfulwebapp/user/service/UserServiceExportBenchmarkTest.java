@@ -0,0 +1,104 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingu.restfulwebapp.export.NdjsonWriter;
+import com.mingu.restfulwebapp.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+대량의 사용자를 내보내는 동안 GC 이후의 heap 사용량이 데이터 건수에 비례해서 늘어나지 않는지 확인한다.
+-Dexport.users 로 데이터 건수를 조정할 수 있다. -Pbenchmark 로만 실행된다. (동작 확인은 UserServiceExportTest)
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class UserServiceExportBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("export.users", 300_000);
+    private static final int FIRST_ID = 5_000_001;
+    private static final int SAMPLE_EVERY = 50_000;
+    private static final long MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into user (id, join_date, name, password, ssn, version, updated_at) "
+                + "select x, sysdate(), concat('export-user', x), 'pass', '000000-0000000', 0, current_timestamp() "
+                + "from system_range(?, ?)", FIRST_ID, FIRST_ID + USERS - 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void exportKeepsHeapBounded() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        NdjsonWriter<User> writer = new NdjsonWriter<>(objectMapper, User.class, out);
+        AtomicLong exported = new AtomicLong();
+        AtomicLong peakRetained = new AtomicLong();
+
+        long baseline = usedHeapAfterGc();
+        userService.exportAll(user -> {
+            writer.accept(user);
+            if (exported.incrementAndGet() % SAMPLE_EVERY == 0) {
+                peakRetained.accumulateAndGet(usedHeapAfterGc() - baseline, Math::max);
+            }
+        });
+        writer.flush();
+
+        log.info("exported={} rows, {} bytes, peak retained heap={} KB",
+                exported.get(), out.count, peakRetained.get() / 1024);
+        assertThat(exported.get()).isGreaterThanOrEqualTo(USERS);
+        assertThat(out.lines).isEqualTo(exported.get());
+        assertThat(peakRetained.get()).isLessThan(MAX_RETAINED_BYTES);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mingu.restfulwebapp.user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingu.restfulwebapp.export.NdjsonWriter;
+import com.mingu.restfulwebapp.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 모든 사용자를 한 줄에 하나씩 JSON 으로 내보낸다. heap 사용량 측정은 UserServiceExportBenchmarkTest
+@SpringBootTest
+class UserServiceExportTest {
+
+    private static final int USERS = 1_000;
+    private static final int FIRST_ID = 5_000_001;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into user (id, join_date, name, password, ssn, version, updated_at) "
+                + "select x, sysdate(), concat('export-user', x), 'pass', '000000-0000000', 0, current_timestamp() "
+                + "from system_range(?, ?)", FIRST_ID, FIRST_ID + USERS - 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void exportsEveryUserAsOneJsonLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonWriter<User> writer = new NdjsonWriter<>(objectMapper, User.class, out);
+        userService.exportAll(writer);
+        writer.flush();
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        List<Integer> exportedIds = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode user = objectMapper.readTree(line);
+            if (user.get("id").asInt() >= FIRST_ID) {
+                assertThat(user.get("name").asText()).isEqualTo("export-user" + user.get("id").asInt());
+                exportedIds.add(user.get("id").asInt());
+            }
+        }
+        assertThat(exportedIds).hasSize(USERS).doesNotHaveDuplicates();
+        // 삭제 표시된 사용자는 내보내지 않는다
+        assertThat(lines).hasSize(jdbcTemplate.queryForObject("select count(*) from user where deleted = false", Integer.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.mingu.restfulwebapp.user.stats;
+
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 다른 테스트가 만든 게시물과 섞이지 않도록 새 사용자를 만들어서 확인한다
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserPostStatsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserPostStats userPostStats;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersFollowCreatesAndDeletesAndAreFlushedToUser() throws Exception {
+        int userId = idOf(mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"stats-user\",\"joinDate\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location"));
+        int first = createPost(userId, "first");
+        int second = createPost(userId, "second");
+
+        mockMvc.perform(get("/api/users/" + userId + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.postCount").value(2))
+                .andExpect(jsonPath("$.lastPostId").value(second));
+
+        mockMvc.perform(delete("/api/users/posts/" + second)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + userId + "/stats"))
+                .andExpect(jsonPath("$.postCount").value(1))
+                .andExpect(jsonPath("$.lastPostId").value(first));
+
+        userPostStats.flush();
+        assertThat(jdbcTemplate.queryForObject("select post_count from user where id = ?", Long.class, userId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select last_post_id from user where id = ?", Integer.class, userId)).isEqualTo(first);
+    }
+
+    @Test
+    void reconcileRestoresCountsFromPosts() {
+        jdbcTemplate.update("update user set post_count = 42, last_post_id = null where id = 10001");
+        long posts = jdbcTemplate.queryForObject("select count(*) from post where user_id = 10001", Long.class);
+        Integer lastPostId = jdbcTemplate.queryForObject("select max(id) from post where user_id = 10001", Integer.class);
+
+        userPostStats.reconcile();
+
+        UserStats stats = userPostStats.get(10001);
+        assertThat(stats.getPostCount()).isEqualTo(posts);
+        assertThat(stats.getLastPostId()).isEqualTo(lastPostId);
+        assertThat(userRepository.findById(10001).get().getPostCount()).isEqualTo(posts);
+    }
+
+    @Test
+    void unknownUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/987654/stats")).andExpect(status().isNotFound());
+    }
+
+    private int createPost(int userId, String description) throws Exception {
+        return idOf(mockMvc.perform(post("/api/users/" + userId + "/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"" + description + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location"));
+    }
+
+    private static int idOf(String location) {
+        return Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.mingu.restfulwebapp.benchmark;
+
+import com.mingu.restfulwebapp.exception.CustomizedResponseEntityExceptionHandler;
+import com.mingu.restfulwebapp.exception.UserNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+존재하지 않는 id 를 조회했을 때의 비용: 예외 생성(stack trace 포함)과 ExceptionResponse 변환.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionMappingBenchmark {
+
+    private CustomizedResponseEntityExceptionHandler handler;
+    private ServletWebRequest request;
+    private UserNotFoundException exception;
+
+    @Setup
+    public void setUp() {
+        handler = new CustomizedResponseEntityExceptionHandler();
+        request = new ServletWebRequest(Fixtures.request("/api/users/999"));
+        exception = new UserNotFoundException("ID[999] not found");
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> createAndMapException() {
+        return handler.handleNotFoundException(
+                new UserNotFoundException(String.format("ID[%s] not found", 999L)), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> mapException() {
+        return handler.handleNotFoundException(exception, request);
+    }
+
+    @Benchmark
+    public UserNotFoundException createException() {
+        return new UserNotFoundException(String.format("ID[%s] not found", 999L));
+    }
+}
@@ -0,0 +1,42 @@
+package com.mingu.restfulwebapp.benchmark;
+
+import com.mingu.restfulwebapp.post.Post;
+import com.mingu.restfulwebapp.user.User;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Date;
+
+// data.sql 의 데이터와 비슷한 크기의 벤치마크용 객체
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(10001);
+        user.setName("user1");
+        user.setJoinDate(new Date(1_600_000_000_000L));
+        user.setPassword("test1");
+        user.setSsn("701010-1111111");
+        user.setVersion(0L);
+        user.setUpdatedAt(new Date(1_600_000_000_000L));
+        return user;
+    }
+
+    static Post post() {
+        Post post = new Post();
+        post.setId(20001);
+        post.setDescription("first post");
+        post.setVersion(0L);
+        post.setUpdatedAt(new Date(1_600_000_000_000L));
+        return post;
+    }
+
+    static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setServerName("localhost");
+        request.setServerPort(8009);
+        return request;
+    }
+}
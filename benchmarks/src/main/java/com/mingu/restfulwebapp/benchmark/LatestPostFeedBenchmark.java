@@ -0,0 +1,51 @@
+package com.mingu.restfulwebapp.benchmark;
+
+import com.mingu.restfulwebapp.paging.CursorPage;
+import com.mingu.restfulwebapp.post.LatestPostFeed;
+import com.mingu.restfulwebapp.post.PostSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+GET /api/posts/latest 의 피드 조회 비용. 가득 찬 ring buffer 에서 첫 페이지와 중간 페이지를 읽는다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatestPostFeedBenchmark {
+
+    private LatestPostFeed feed;
+    private Integer middle;
+    private PostSummary post;
+
+    @Setup
+    public void setUp() {
+        feed = new LatestPostFeed(1024);
+        Date now = new Date();
+        for (int i = 1; i <= 2048; i++) {
+            feed.add(new PostSummary(i, 10001, "post " + i, now));
+        }
+        middle = 2048 - 512;
+        post = new PostSummary(0, 10001, "new post", now);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummary> readFirstPage() {
+        return feed.read(null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummary> readMiddlePage() {
+        return feed.read(middle, 20);
+    }
+
+    @Benchmark
+    public void add() {
+        feed.add(post);
+    }
+}
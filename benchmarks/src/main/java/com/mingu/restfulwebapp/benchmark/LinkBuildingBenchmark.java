@@ -0,0 +1,69 @@
+package com.mingu.restfulwebapp.benchmark;
+
+import com.mingu.restfulwebapp.link.LinkTemplate;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.user.controller.UserController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/*
+UserController.retrieveUser 에서 응답마다 수행하는 EntityModel + all-users 링크 생성 비용.
+linkTo(methodOn(...)) 와 LinkTemplate 을 비교한다. 연산당 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 본다.
+매 연산마다 request attribute 를 비워서 새 요청을 처리하는 것과 같은 조건으로 측정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBuildingBenchmark {
+
+    private static final LinkTemplate ALL_USERS =
+            LinkTemplate.of(UserController.class, "retrieveAllUsers", String.class, Integer.class);
+
+    private User user;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user();
+        // 링크는 현재 요청의 scheme/host/port 를 기준으로 만들어진다
+        request = Fixtures.request("/api/users/10001");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public EntityModel<User> retrieveUserModel() {
+        request.clearAttributes();
+        EntityModel<User> entityModel = EntityModel.of(user);
+        entityModel.add(linkTo(methodOn(UserController.class).retrieveAllUsers(null, null)).withRel("all-users"));
+        return entityModel;
+    }
+
+    @Benchmark
+    public EntityModel<User> retrieveUserModelFromTemplate() {
+        request.clearAttributes();
+        EntityModel<User> entityModel = EntityModel.of(user);
+        entityModel.add(ALL_USERS.expand("all-users"));
+        return entityModel;
+    }
+
+    @Benchmark
+    public EntityModel<User> entityModelOnly() {
+        return EntityModel.of(user);
+    }
+}
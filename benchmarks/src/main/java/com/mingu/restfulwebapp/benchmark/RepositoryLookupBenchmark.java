@@ -0,0 +1,62 @@
+package com.mingu.restfulwebapp.benchmark;
+
+import com.mingu.restfulwebapp.MyappApplication;
+import com.mingu.restfulwebapp.post.Post;
+import com.mingu.restfulwebapp.post.PostRepository;
+import com.mingu.restfulwebapp.user.User;
+import com.mingu.restfulwebapp.user.persistence.UserRepository;
+import com.mingu.restfulwebapp.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/*
+id 로 사용자/게시물을 조회하는 비용. 애플리케이션 컨텍스트를 그대로 띄워서
+JPA repository 를 직접 호출하는 경우와 캐시를 거치는 UserService 를 호출하는 경우를 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private PostRepository postRepository;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(MyappApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        postRepository = context.getBean(PostRepository.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> userRepositoryFindById() {
+        return userRepository.findById(10001);
+    }
+
+    @Benchmark
+    public Optional<Post> postRepositoryFindById() {
+        return postRepository.findById(20001);
+    }
+
+    @Benchmark
+    public Optional<User> userServiceGetUserById() {
+        return userService.getUserById(10001L);
+    }
+}
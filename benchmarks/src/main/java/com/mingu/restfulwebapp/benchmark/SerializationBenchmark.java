@@ -0,0 +1,69 @@
+package com.mingu.restfulwebapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingu.restfulwebapp.post.Post;
+import com.mingu.restfulwebapp.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+SwaggerConfig 에서 제공하는 네 가지 형식(json, xml, cbor, smile)의 직렬화/역직렬화 비용.
+ObjectMapper 는 Spring MVC 의 메시지 컨버터와 같은 방식(Jackson2ObjectMapperBuilder)으로 만든다.
+형식별 payload 크기는 JMH 결과에 들어가지 않으므로 setup 에서 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "xml", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private User user;
+    private Post post;
+    private byte[] userBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = builder(format).build();
+        user = Fixtures.user();
+        post = Fixtures.post();
+        userBytes = mapper.writeValueAsBytes(user);
+        System.out.printf("%n[%s] payload bytes: user=%d, post=%d%n",
+                format, userBytes.length, mapper.writeValueAsBytes(post).length);
+    }
+
+    private static Jackson2ObjectMapperBuilder builder(String format) {
+        switch (format) {
+            case "xml":
+                return Jackson2ObjectMapperBuilder.xml();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor();
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile();
+            default:
+                return Jackson2ObjectMapperBuilder.json();
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializePost() throws Exception {
+        return mapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public User deserializeUser() throws Exception {
+        return mapper.readValue(userBytes, User.class);
+    }
+}
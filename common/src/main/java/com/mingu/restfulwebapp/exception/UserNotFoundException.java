@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 public class UserNotFoundException extends RuntimeException {
 
     public UserNotFoundException(String message) {
-        super(message);
+        // 없는 id 조회는 흔한 일이므로 stack trace 를 만들지 않는다
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,48 @@
+package com.mingu.restfulwebapp.paging;
+
+import com.mingu.restfulwebapp.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// 클라이언트에게는 불투명한(opaque) 문자열로 보이도록 마지막 id를 인코딩한다
+public final class Cursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String PREFIX = "id:";
+
+    private Cursor() {
+    }
+
+    public static String encode(Integer id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Integer decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidCursorException(String.format("Cursor[%s] is invalid", cursor));
+            }
+            return Integer.valueOf(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(String.format("Cursor[%s] is invalid", cursor));
+        }
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1) {
+            return 1;
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.mingu.restfulwebapp.paging;
+
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class CursorPage<T> extends RepresentationModel<CursorPage<T>> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /*
+    rows는 limit + 1 건을 조회한 결과이다.
+    한 건이 더 조회되었다면 다음 페이지가 있는 것이므로, 이번 페이지의 마지막 id를 다음 cursor로 사용한다.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Integer> idExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, limit);
+        return new CursorPage<>(content, Cursor.encode(idExtractor.apply(content.get(limit - 1))));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mingu.restfulwebapp.post;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mingu.restfulwebapp.user.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import java.util.Date;
+
+@Entity
+@Table(indexes = @Index(name = "idx_post_user_id", columnList = "user_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Post {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
+    private Integer id;
+
+    // 컬럼 길이와 같게 제한해서, 비동기 등록에서도 큐에 넣기 전에 400 으로 거절한다
+    @NotBlank(message = "내용을 입력해야합니다.")
+    @Size(max = 255, message = "내용은 255글자 이하로 입력해야합니다.")
+    private String description;
+
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    @JsonIgnore
+    @UpdateTimestamp
+    private Date updatedAt;
+
+    // User : Post -> 1 : N / Main : Sub / Parent : Child
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User user;
+}
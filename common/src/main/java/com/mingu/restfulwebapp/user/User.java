@@ -0,0 +1,96 @@
+package com.mingu.restfulwebapp.user;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mingu.restfulwebapp.post.Post;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.Size;
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+//@JsonIgnoreProperties(value = {"password"})
+//@JsonFilter("UserInfo") // UserInfo 라는 이름의 필터를 추가
+@ApiModel(description = "사용자 정보 도메인 객체")
+@Entity
+// 삭제된 사용자(tombstone)는 게시물이 모두 정리될 때까지 row 가 남아 있으므로 JPA 조회에서 제외한다
+@Where(clause = "deleted = false")
+public class User {
+
+    // allocationSize 만큼 id 를 미리 받아오는 pooled optimizer 를 사용해서 insert 마다 sequence 를 조회하지 않는다
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
+    private Integer id;
+
+    @Size(min = 2, message = "이름은 2글자 이상 입력해야합니다.")
+    @ApiModelProperty(notes = "사용자 이름을 입력해주세요.")
+    private String name;
+
+    @Past
+    @ApiModelProperty(notes = "사용자 등록일을 입력해주세요.")
+    private Date joinDate;
+
+//    @JsonIgnore
+    @ApiModelProperty(notes = "사용자 비밀번호를 입력해주세요.")
+    private String password;
+
+//    @JsonIgnore
+    @ApiModelProperty(notes = "사용자 주민번호를 입력해주세요.")
+    private String ssn;
+
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    @JsonIgnore
+    @UpdateTimestamp
+    private Date updatedAt;
+
+    /*
+    게시물 통계의 비정규화 컬럼. UserPostStats 가 메모리의 카운터를 주기적으로 bulk update 로 반영하고, 시작할 때 post 테이블로 다시 맞춘다.
+    엔티티 update 로 덮어쓰지 않도록 updatable = false 로 둔다. 응답에는 /{id}/stats 로 제공한다
+     */
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long postCount;
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private Integer lastPostId;
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private Date lastPostAt;
+
+    /*
+    DELETE /api/users/{id} 는 이 값만 바꾸고 바로 응답한다. 게시물과 row 는 UserPurgeJob 이 나눠서 지운다.
+    재시작 후에는 이 값이 true 인 사용자부터 정리를 이어간다
+     */
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("false")
+    private boolean deleted;
+
+    // 캐시된(detached) 엔티티에서는 지연 로딩을 할 수 없으므로 직렬화하지 않는다. 게시물은 /{id}/posts 로 조회한다
+    @JsonIgnore
+    @OneToMany(mappedBy = "user")
+    private List<Post> posts;
+}
@@ -0,0 +1,199 @@
+package com.mingu.restfulwebapp.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+
+/*
+app 의 스키마와 같은 H2 파일 DB 에 사용자 / 게시물을 채운다.
+사용자별 게시물 수는 Zipf 분포를 따르므로 소수의 사용자가 게시물 대부분을 가진다.
+post_count / last_post_id / last_post_at 도 함께 채우므로 app 은 바로 이 파일을 열어 쓸 수 있다. (application-loadtest.yml)
+ */
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int COMMIT_INTERVAL = 50_000;
+    private static final Duration TIMELINE = Duration.ofDays(365);
+
+    private static final String[] WORDS = {
+            "spring", "java", "jpa", "cache", "latency", "index", "query", "thread", "reactive", "batch",
+            "heap", "pool", "lock", "stream", "cursor", "page", "token", "replica", "metric", "profile"
+    };
+
+    private final Path path;
+    private final int users;
+    private final int posts;
+    private final double skew;
+    private final long seed;
+
+    public DatasetGenerator(Path path, int users, int posts, double skew, long seed) {
+        if (users < 1 || posts < 0) {
+            throw new IllegalArgumentException("users must be positive and posts must not be negative");
+        }
+        this.path = path.toAbsolutePath();
+        this.users = users;
+        this.posts = posts;
+        this.skew = skew;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        DatasetGenerator generator = new DatasetGenerator(
+                Paths.get(System.getProperty("dataset.path", "target/dataset")),
+                Integer.getInteger("dataset.users", 1_000_000),
+                Integer.getInteger("dataset.posts", 5_000_000),
+                Double.parseDouble(System.getProperty("dataset.skew", "1.1")),
+                Long.getLong("dataset.seed", 42L));
+        generator.generate();
+    }
+
+    public String url() {
+        return "jdbc:h2:file:" + path;
+    }
+
+    public void generate() throws SQLException {
+        long started = System.nanoTime();
+        Random random = new Random(seed);
+
+        // 게시물 id 는 시간순이다. 게시물마다 작성자를 Zipf 순위로 뽑고, 순위 -> 사용자 id 는 섞어서 인기 사용자가 id 순으로 몰리지 않게 한다
+        int[] userByRank = shuffledIds(users, random);
+        Zipf zipf = new Zipf(users, skew);
+        int[] owners = new int[posts];
+        long[] postCount = new long[users + 1];
+        int[] lastPostId = new int[users + 1];
+        for (int i = 0; i < posts; i++) {
+            int userId = userByRank[zipf.next(random) - 1];
+            owners[i] = userId;
+            postCount[userId]++;
+            lastPostId[userId] = i + 1;
+        }
+
+        Instant origin = Instant.now().minus(TIMELINE);
+        long step = posts == 0 ? 0 : TIMELINE.toMillis() / posts;
+
+        try (Connection connection = DriverManager.getConnection(url(), "sa", "")) {
+            connection.setAutoCommit(false);
+            createTables(connection);
+            insertUsers(connection, random, origin, step, postCount, lastPostId);
+            insertPosts(connection, random, origin, step, owners);
+            finish(connection);
+        }
+        System.out.printf("dataset %s: %d users, %d posts in %d s%n",
+                url(), users, posts, Duration.ofNanos(System.nanoTime() - started).getSeconds());
+    }
+
+    private void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+            statement.execute("create table user (id integer not null, deleted boolean default false not null, "
+                    + "join_date timestamp, last_post_at timestamp, last_post_id integer, name varchar(255), "
+                    + "password varchar(255), post_count bigint default 0 not null, ssn varchar(255), "
+                    + "updated_at timestamp, version bigint, primary key (id))");
+            statement.execute("create table post (id integer not null, description varchar(255), updated_at timestamp, "
+                    + "version bigint, user_id integer, primary key (id))");
+        }
+        connection.commit();
+    }
+
+    private void insertUsers(Connection connection, Random random, Instant origin, long step,
+                             long[] postCount, int[] lastPostId) throws SQLException {
+        String sql = "insert into user (id, deleted, join_date, last_post_at, last_post_id, name, password, post_count, "
+                + "ssn, updated_at, version) values (?, false, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= users; id++) {
+                // 가입일은 첫 게시물보다 앞선다
+                Timestamp joinDate = Timestamp.from(origin.minus(Duration.ofMinutes(random.nextInt(365 * 24 * 60))));
+                insert.setInt(1, id);
+                insert.setTimestamp(2, joinDate);
+                if (lastPostId[id] == 0) {
+                    insert.setNull(3, java.sql.Types.TIMESTAMP);
+                    insert.setNull(4, java.sql.Types.INTEGER);
+                } else {
+                    insert.setTimestamp(3, postedAt(origin, step, lastPostId[id]));
+                    insert.setInt(4, lastPostId[id]);
+                }
+                insert.setString(5, "user" + id);
+                insert.setString(6, "test" + id);
+                insert.setLong(7, postCount[id]);
+                insert.setString(8, String.format("%06d-%07d", random.nextInt(1_000_000), random.nextInt(10_000_000)));
+                insert.setTimestamp(9, joinDate);
+                insert.addBatch();
+                flush(connection, insert, id, "users");
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void insertPosts(Connection connection, Random random, Instant origin, long step, int[] owners)
+            throws SQLException {
+        String sql = "insert into post (id, description, updated_at, version, user_id) values (?, ?, ?, 0, ?)";
+        StringBuilder description = new StringBuilder();
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= owners.length; id++) {
+                description.setLength(0);
+                int words = 3 + random.nextInt(10);
+                for (int w = 0; w < words; w++) {
+                    description.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                insert.setInt(1, id);
+                insert.setString(2, description.toString());
+                insert.setTimestamp(3, postedAt(origin, step, id));
+                insert.setInt(4, owners[id - 1]);
+                insert.addBatch();
+                flush(connection, insert, id, "posts");
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    // 적재가 끝난 뒤에 인덱스와 FK 를 만드는 편이 행마다 갱신하는 것보다 훨씬 빠르다
+    private void finish(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index idx_post_user_id on post (user_id, id)");
+            statement.execute("alter table post add constraint fk_post_user foreign key (user_id) references user");
+            // app 의 sequence 는 allocationSize 50 (pooled) 이므로, 받아 간 값에서 49 를 뺀 id 부터 쓴다
+            statement.execute("create sequence user_seq start with " + (users + 51) + " increment by 50");
+            statement.execute("create sequence post_seq start with " + (posts + 51) + " increment by 50");
+        }
+        connection.commit();
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert, int count, String table)
+            throws SQLException {
+        if (count % BATCH_SIZE == 0) {
+            insert.executeBatch();
+        }
+        if (count % COMMIT_INTERVAL == 0) {
+            connection.commit();
+            System.out.printf("%s: %d%n", table, count);
+        }
+    }
+
+    private static Timestamp postedAt(Instant origin, long step, int postId) {
+        return Timestamp.from(origin.plusMillis(step * postId));
+    }
+
+    private static int[] shuffledIds(int n, Random random) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,337 @@
+package com.mingu.restfulwebapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+UserController 엔드포인트를 정해진 비율로 섞어 일정한 도착률(open model)로 호출한다.
+i 번째 요청은 start + i * interval 에 보내기로 '예정'되어 있고, 응답 시간은 실제 전송 시각이 아니라 예정 시각부터 잰다.
+서버가 밀려 요청을 제때 못 보낸 시간도 지연으로 잡히므로 coordinated omission 이 보정된다. (service time 은 따로 기록한다)
+ */
+public class LoadDriver {
+
+    enum Operation {
+        USER, USERS, MULTI, POSTS, STATS, CREATE
+    }
+
+    public static class Settings {
+        public String url = "http://localhost:8009";
+        public int rate = 500;
+        public Duration duration = Duration.ofSeconds(60);
+        public Duration warmup = Duration.ofSeconds(10);
+        public int concurrency = 64;
+        public String mix = "user=50,posts=20,stats=15,users=10,create=5";
+        public int users = 1_000_000;
+        public double skew = 1.0;
+        public String token = "";
+        // 이 경로가 200 을 줄 때까지 기다린 뒤 시작한다. (ApplicationReadyEvent 의 적재 작업이 끝나기 전에는 측정하지 않는다)
+        public String readyPath = "/actuator/health/readiness";
+        public Duration readyTimeout = Duration.ofMinutes(10);
+        public Path result;
+
+        static Settings fromSystemProperties() {
+            Settings settings = new Settings();
+            settings.url = System.getProperty("load.url", settings.url);
+            settings.rate = Integer.getInteger("load.rate", settings.rate);
+            settings.duration = Duration.ofSeconds(Long.getLong("load.duration", settings.duration.getSeconds()));
+            settings.warmup = Duration.ofSeconds(Long.getLong("load.warmup", settings.warmup.getSeconds()));
+            settings.concurrency = Integer.getInteger("load.concurrency", settings.concurrency);
+            settings.mix = System.getProperty("load.mix", settings.mix);
+            settings.users = Integer.getInteger("load.users", settings.users);
+            settings.skew = Double.parseDouble(System.getProperty("load.skew", String.valueOf(settings.skew)));
+            settings.token = System.getProperty("load.token", settings.token);
+            settings.readyPath = System.getProperty("load.ready-path", settings.readyPath);
+            String result = System.getProperty("load.result");
+            settings.result = result == null || result.isEmpty() ? null : Paths.get(result);
+            return settings;
+        }
+    }
+
+    public static class Result {
+        // 예정 시각부터 잰 응답 시간과 실제 전송 시각부터 잰 service time (모두 microseconds)
+        public final Histogram responseTime = new Histogram(3);
+        public final Histogram serviceTime = new Histogram(3);
+        // 응답 코드별 건수. 연결 실패 등은 -1
+        public final Map<Integer, Long> statuses = new TreeMap<>();
+        public long elapsedNanos;
+
+        // 서버가 밀리면 예정된 시간보다 오래 걸리므로 실제로 걸린 시간으로 나눈다
+        double throughput(Duration warmup) {
+            return responseTime.getTotalCount() * 1_000_000_000.0 / (elapsedNanos - warmup.toNanos());
+        }
+    }
+
+    private static final String CREATE_BODY = "{\"description\":\"load test post\"}";
+    // multi 한 번에 묻는 사용자 수
+    private static final int MULTI_IDS = 10;
+
+    private final Settings settings;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Zipf zipf;
+
+    public LoadDriver(Settings settings) {
+        if (settings.rate < 1 || settings.concurrency < 1) {
+            throw new IllegalArgumentException("rate and concurrency must be positive");
+        }
+        this.settings = settings;
+        Map<Operation, Integer> mix = parseMix(settings.mix);
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        this.zipf = new Zipf(settings.users, settings.skew);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        // keep-alive 연결을 동시 요청 수만큼 재사용한다
+        System.setProperty("http.maxConnections", String.valueOf(settings.concurrency));
+        LoadDriver driver = new LoadDriver(settings);
+        driver.awaitReady();
+        Result result = driver.run();
+        report(settings, result, System.out);
+        if (settings.result != null) {
+            writeHistograms(settings.result, result);
+        }
+    }
+
+    public void awaitReady() throws InterruptedException {
+        if (settings.readyPath.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + settings.readyTimeout.toNanos();
+        while (request("GET", settings.readyPath, null) != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(settings.url + settings.readyPath + " is not ready after " + settings.readyTimeout);
+            }
+            TimeUnit.SECONDS.sleep(1);
+        }
+    }
+
+    public Result run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+        long total = settings.duration.toNanos() / intervalNanos;
+        long recordFrom = settings.warmup.toNanos() / intervalNanos;
+        AtomicLong sequence = new AtomicLong();
+        long start = System.nanoTime();
+
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency; i++) {
+            Worker worker = new Worker(new Random(i), sequence, start, intervalNanos, total, recordFrom);
+            Thread thread = new Thread(worker, "load-driver-" + i);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+
+        Result result = new Result();
+        for (Worker worker : workers) {
+            worker.thread.join();
+            result.responseTime.add(worker.responseTime);
+            result.serviceTime.add(worker.serviceTime);
+            worker.statuses.forEach((status, count) -> result.statuses.merge(status, count, Long::sum));
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private class Worker implements Runnable {
+
+        private final Random random;
+        private final AtomicLong sequence;
+        private final long start;
+        private final long intervalNanos;
+        private final long total;
+        private final long recordFrom;
+        private final Histogram responseTime = new Histogram(3);
+        private final Histogram serviceTime = new Histogram(3);
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private Thread thread;
+
+        Worker(Random random, AtomicLong sequence, long start, long intervalNanos, long total, long recordFrom) {
+            this.random = random;
+            this.sequence = sequence;
+            this.start = start;
+            this.intervalNanos = intervalNanos;
+            this.total = total;
+            this.recordFrom = recordFrom;
+        }
+
+        @Override
+        public void run() {
+            long i;
+            while ((i = sequence.getAndIncrement()) < total) {
+                long intended = start + i * intervalNanos;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long sent = System.nanoTime();
+                int status = send(nextOperation(random), random);
+                long completed = System.nanoTime();
+                if (i >= recordFrom) {
+                    responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completed - intended));
+                    serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completed - sent));
+                    statuses.merge(status, 1L, Long::sum);
+                }
+            }
+        }
+    }
+
+    Operation nextOperation(Random random) {
+        int target = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private int send(Operation operation, Random random) {
+        int userId = zipf.next(random);
+        switch (operation) {
+            case USER:
+                return request("GET", "/api/users/" + userId, null);
+            case USERS:
+                return request("GET", "/api/users/all?limit=20", null);
+            case MULTI:
+                StringBuilder ids = new StringBuilder().append(userId);
+                for (int i = 1; i < MULTI_IDS; i++) {
+                    ids.append(',').append(zipf.next(random));
+                }
+                return request("GET", "/api/users?ids=" + ids, null);
+            case POSTS:
+                return request("GET", "/api/users/" + userId + "/posts?limit=20", null);
+            case STATS:
+                return request("GET", "/api/users/" + userId + "/stats", null);
+            case CREATE:
+                return request("POST", "/api/users/" + userId + "/posts", CREATE_BODY);
+            default:
+                throw new IllegalStateException(operation.name());
+        }
+    }
+
+    private int request(String method, String path, String body) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(settings.url + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(30_000);
+            connection.setRequestProperty("Accept", "application/json");
+            if (!settings.token.isEmpty()) {
+                connection.setRequestProperty("Authorization", "Bearer " + settings.token);
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            // 본문을 끝까지 읽어야 연결이 keep-alive 로 재사용된다
+            drain(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+            return status;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return -1;
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[8192];
+            while (stream.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("mix entry must be <operation>=<weight>: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("mix must contain at least one operation: " + mix);
+        }
+        return weights;
+    }
+
+    static void report(Settings settings, Result result, PrintStream out) {
+        out.printf("target %d req/s for %d s (warmup %d s), concurrency %d, mix %s%n",
+                settings.rate, settings.duration.getSeconds(), settings.warmup.getSeconds(),
+                settings.concurrency, settings.mix);
+        out.printf("requests %d, throughput %.1f req/s, finished in %.1f s%n",
+                result.responseTime.getTotalCount(), result.throughput(settings.warmup),
+                result.elapsedNanos / 1_000_000_000.0);
+        out.println("status " + result.statuses);
+        printPercentiles("response time (corrected)", result.responseTime, out);
+        printPercentiles("service time", result.serviceTime, out);
+    }
+
+    private static void printPercentiles(String label, Histogram histogram, PrintStream out) {
+        out.printf("%-26s p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n", label,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    // HdrHistogram plotter 로 볼 수 있는 .hgrm 형식 (단위 ms). service time 은 -service 를 붙여 옆에 남긴다
+    private static void writeHistograms(Path path, Result result) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path service = path.resolveSibling(dot < 0 ? name + "-service" : name.substring(0, dot) + "-service" + name.substring(dot));
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path), false, "UTF-8")) {
+            result.responseTime.outputPercentileDistribution(out, 1000.0);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(service), false, "UTF-8")) {
+            result.serviceTime.outputPercentileDistribution(out, 1000.0);
+        }
+        System.out.println("histograms written to " + path + " and " + service);
+    }
+}
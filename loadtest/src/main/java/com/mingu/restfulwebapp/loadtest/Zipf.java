@@ -0,0 +1,32 @@
+package com.mingu.restfulwebapp.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+1..n 중에서 순위 k 가 1/k^s 에 비례하는 확률로 뽑힌다. (s = 0 이면 균등 분포)
+누적 분포를 한 번 만들어 두고 이진 탐색으로 뽑으므로 n = 수백만이어도 한 번 뽑는 비용은 O(log n) 이다.
+ */
+public class Zipf {
+
+    private final double[] cumulative;
+
+    public Zipf(int n, double skew) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, skew);
+            cumulative[k - 1] = sum;
+        }
+    }
+
+    // 1 부터 시작하는 순위
+    public int next(Random random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
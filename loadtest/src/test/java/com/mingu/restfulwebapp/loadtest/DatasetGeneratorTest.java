@@ -0,0 +1,54 @@
+package com.mingu.restfulwebapp.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatasetGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void generatesSkewedDatasetWithConsistentStats() throws SQLException {
+        DatasetGenerator generator = new DatasetGenerator(dir.resolve("dataset"), 2_000, 20_000, 1.1, 7L);
+        generator.generate();
+
+        try (Connection connection = DriverManager.getConnection(generator.url(), "sa", "");
+             Statement statement = connection.createStatement()) {
+            assertThat(single(statement, "select count(*) from user")).isEqualTo(2_000);
+            assertThat(single(statement, "select count(*) from post")).isEqualTo(20_000);
+            assertThat(single(statement, "select sum(post_count) from user")).isEqualTo(20_000);
+
+            // 비정규화 컬럼이 실제 게시물과 맞아야 한다
+            assertThat(single(statement, "select count(*) from user u where u.post_count <> "
+                    + "(select count(*) from post p where p.user_id = u.id)")).isZero();
+            assertThat(single(statement, "select count(*) from user u where u.post_count > 0 and u.last_post_id <> "
+                    + "(select max(p.id) from post p where p.user_id = u.id)")).isZero();
+
+            // 상위 1% 사용자가 게시물의 상당 부분을 가진다
+            long top = single(statement, "select sum(post_count) from (select post_count from user "
+                    + "order by post_count desc limit 20)");
+            assertThat(top).isGreaterThan(20_000 / 4);
+
+            // app 이 새로 발급하는 id 는 기존 id 와 겹치지 않아야 한다
+            assertThat(single(statement, "select next value for user_seq")).isGreaterThan(2_000 + 49);
+            assertThat(single(statement, "select next value for post_seq")).isGreaterThan(20_000 + 49);
+        }
+    }
+
+    private static long single(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
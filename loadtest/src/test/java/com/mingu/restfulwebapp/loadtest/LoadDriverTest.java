@@ -0,0 +1,101 @@
+package com.mingu.restfulwebapp.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadDriverTest {
+
+    private final List<String> paths = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private volatile long serviceMillis;
+
+    // executor 를 지정하지 않으면 요청을 한 스레드에서 차례로 처리한다
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            paths.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            sleep(serviceMillis);
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void responseTimeIncludesQueueingBehindSlowServer() throws InterruptedException {
+        // 서버는 초당 50건까지만 처리하므로 초당 100건을 보내면 요청이 점점 밀린다
+        serviceMillis = 20;
+        LoadDriver.Settings settings = settings(100, Duration.ofSeconds(2), "user=1");
+        settings.concurrency = 2;
+
+        LoadDriver.Result result = new LoadDriver(settings).run();
+
+        assertThat(result.statuses).containsEntry(200, 200L);
+        long corrected = result.responseTime.getValueAtPercentile(99);
+        long service = result.serviceTime.getValueAtPercentile(99);
+        // 실제 전송 시각부터 재면 밀린 시간이 빠져 지연이 작게 보인다
+        assertThat(corrected).isGreaterThan(500_000);
+        assertThat(corrected).isGreaterThan(service * 4);
+    }
+
+    @Test
+    void replaysConfiguredMix() throws InterruptedException {
+        LoadDriver.Settings settings = settings(200, Duration.ofSeconds(1), "user=1,stats=1,create=1");
+
+        LoadDriver.Result result = new LoadDriver(settings).run();
+
+        assertThat(result.responseTime.getTotalCount()).isEqualTo(200);
+        assertThat(paths).hasSize(200).allMatch(path -> path.matches(
+                "GET /api/users/\\d+|GET /api/users/\\d+/stats|POST /api/users/\\d+/posts"));
+        assertThat(paths).anyMatch(path -> path.startsWith("POST"));
+        assertThat(paths).anyMatch(path -> path.endsWith("/stats"));
+    }
+
+    @Test
+    void rejectsUnknownOperation() {
+        assertThatThrownBy(() -> LoadDriver.parseMix("user=1,delete=1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private LoadDriver.Settings settings(int rate, Duration duration, String mix) {
+        LoadDriver.Settings settings = new LoadDriver.Settings();
+        settings.url = "http://localhost:" + server.getAddress().getPort();
+        settings.rate = rate;
+        settings.duration = duration;
+        settings.warmup = Duration.ZERO;
+        settings.concurrency = 4;
+        settings.mix = mix;
+        settings.users = 100;
+        return settings;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.mingu.restfulwebapp.reactive.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+
+// spring-boot 의 HATEOAS 자동 설정은 servlet 환경에서만 동작하므로, MVC 모듈과 같은 HAL 응답을 위해 직접 활성화한다
+@Configuration
+@EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL)
+public class HateoasConfig {
+}
@@ -0,0 +1,22 @@
+package com.mingu.restfulwebapp.reactive.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+@Configuration
+public class R2dbcConfig {
+
+    // JPA 모듈처럼 스키마를 자동 생성해주지 않으므로, 시작할 때 schema.sql 과 data.sql 을 실행한다
+    @Bean
+    public ConnectionFactoryInitializer connectionFactoryInitializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(
+                new ClassPathResource("schema.sql"), new ClassPathResource("data.sql")));
+        return initializer;
+    }
+}
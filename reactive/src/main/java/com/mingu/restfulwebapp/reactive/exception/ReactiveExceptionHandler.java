@@ -0,0 +1,48 @@
+package com.mingu.restfulwebapp.reactive.exception;
+
+import com.mingu.restfulwebapp.exception.ExceptionResponse;
+import com.mingu.restfulwebapp.exception.InvalidCursorException;
+import com.mingu.restfulwebapp.exception.PostNotFoundException;
+import com.mingu.restfulwebapp.exception.UserNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Date;
+
+// MVC 모듈의 CustomizedResponseEntityExceptionHandler 와 같은 ExceptionResponse 형식으로 에러를 응답한다
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ExceptionResponse> handleAllExceptions(Exception ex, ServerWebExchange exchange) {
+        return response(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler({UserNotFoundException.class, PostNotFoundException.class})
+    public ResponseEntity<ExceptionResponse> handleNotFoundException(Exception ex, ServerWebExchange exchange) {
+        return response(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ExceptionResponse> handleInvalidCursorException(Exception ex, ServerWebExchange exchange) {
+        return response(HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ExceptionResponse> handleBindException(WebExchangeBindException ex) {
+        ExceptionResponse exceptionResponse =
+                new ExceptionResponse(new Date(), "Validation failed", ex.getBindingResult().toString());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // WebRequest.getDescription(false) 와 같은 "uri=..." 형식
+    private static ResponseEntity<ExceptionResponse> response(HttpStatus status, String message, ServerWebExchange exchange) {
+        ExceptionResponse exceptionResponse =
+                new ExceptionResponse(new Date(), message, "uri=" + exchange.getRequest().getPath().value());
+        return new ResponseEntity<>(exceptionResponse, status);
+    }
+}
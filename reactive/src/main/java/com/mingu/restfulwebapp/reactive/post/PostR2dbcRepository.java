@@ -0,0 +1,113 @@
+package com.mingu.restfulwebapp.reactive.post;
+
+import com.mingu.restfulwebapp.post.Post;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Repository
+@RequiredArgsConstructor
+public class PostR2dbcRepository {
+
+    private static final String COLUMNS = "id, description, version, updated_at";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    // (user_id, id) 인덱스를 타는 범위 스캔
+    public Flux<Post> findPageByUserId(Integer userId, Integer afterId, int limit) {
+        // 사용자 삭제는 표시만 하고 게시물은 남아 있으므로, 삭제 표시된 사용자의 게시물은 제외한다
+        return databaseClient.sql("select " + COLUMNS + " from post where user_id = :userId and id > :afterId"
+                        + " and exists (select 1 from user u where u.id = post.user_id and u.deleted = false) order by id limit :limit")
+                .bind("userId", userId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> toPost(row))
+                .all();
+    }
+
+    public Mono<Post> findById(Integer id) {
+        return databaseClient.sql("select " + COLUMNS + " from post where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toPost(row))
+                .one();
+    }
+
+    /*
+    MVC 모듈의 UserPostStats 가 관리하는 사용자 통계(post_count, last_post_id, last_post_at)를 같은 트랜잭션에서 바꾼다.
+    사용자 row 를 먼저 갱신하므로 삭제 표시(tombstone)와 동시에 실행되어도 둘 중 하나가 먼저 끝난 뒤에 진행된다.
+    삭제 표시된(또는 없는) 사용자이면 아무것도 저장하지 않고 빈 Mono 를 돌려준다.
+     */
+    public Mono<Post> save(Integer userId, Post post) {
+        return databaseClient.sql("select next value for post_seq")
+                .map((row, metadata) -> row.get(0, Long.class).intValue())
+                .one()
+                .flatMap(id -> databaseClient.sql("update user set post_count = post_count + 1, "
+                                + "last_post_at = case when last_post_id is null or last_post_id < :id then current_timestamp() else last_post_at end, "
+                                + "last_post_id = case when last_post_id is null or last_post_id < :id then :id else last_post_id end "
+                                + "where id = :userId and deleted = false")
+                        .bind("id", id)
+                        .bind("userId", userId)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(updated -> updated > 0)
+                        .flatMap(updated -> {
+                            DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into post (id, description, version, updated_at, user_id) "
+                                    + "values (:id, :description, 0, current_timestamp(), :userId)")
+                                    .bind("id", id)
+                                    .bind("userId", userId);
+                            insert = post.getDescription() == null
+                                    ? insert.bindNull("description", String.class)
+                                    : insert.bind("description", post.getDescription());
+                            return insert.fetch().rowsUpdated().thenReturn(id);
+                        })
+                        .as(transactionalOperator::transactional))
+                .map(id -> {
+                    post.setId(id);
+                    return post;
+                });
+    }
+
+    // 삭제 표시된 사용자의 게시물은 조회와 같이 없는 것으로 보고 0 을 돌려준다. 마지막 게시물이 지워지면 그 다음 게시물을 찾는다
+    public Mono<Integer> deleteById(Integer id) {
+        return databaseClient.sql("select user_id from post where id = :id"
+                        + " and exists (select 1 from user u where u.id = post.user_id and u.deleted = false)")
+                .bind("id", id)
+                .map((row, metadata) -> row.get("user_id", Integer.class))
+                .one()
+                .flatMap(userId -> databaseClient.sql("delete from post where id = :id")
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(deleted -> deleted > 0)
+                        .flatMap(deleted -> databaseClient.sql("update user set post_count = post_count - 1, "
+                                        + "last_post_at = case when last_post_id = :id then (select p.updated_at from post p "
+                                        + "where p.id = (select max(p2.id) from post p2 where p2.user_id = :userId)) else last_post_at end, "
+                                        + "last_post_id = case when last_post_id = :id then (select max(p.id) from post p where p.user_id = :userId) else last_post_id end "
+                                        + "where id = :userId")
+                                .bind("id", id)
+                                .bind("userId", userId)
+                                .fetch()
+                                .rowsUpdated()
+                                .thenReturn(deleted))
+                        .as(transactionalOperator::transactional))
+                .defaultIfEmpty(0);
+    }
+
+    private static Post toPost(Row row) {
+        Post post = new Post();
+        post.setId(row.get("id", Integer.class));
+        post.setDescription(row.get("description", String.class));
+        post.setVersion(row.get("version", Long.class));
+        LocalDateTime updatedAt = row.get("updated_at", LocalDateTime.class);
+        post.setUpdatedAt(updatedAt == null ? null : Timestamp.valueOf(updatedAt));
+        return post;
+    }
+}
@@ -0,0 +1,146 @@
+package com.mingu.restfulwebapp.reactive.user;
+
+import com.mingu.restfulwebapp.exception.PostNotFoundException;
+import com.mingu.restfulwebapp.exception.UserNotFoundException;
+import com.mingu.restfulwebapp.paging.Cursor;
+import com.mingu.restfulwebapp.paging.CursorPage;
+import com.mingu.restfulwebapp.post.Post;
+import com.mingu.restfulwebapp.reactive.post.PostR2dbcRepository;
+import com.mingu.restfulwebapp.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.net.URI;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+/*
+MVC 모듈의 UserController 와 같은 URI, 요청/응답 형식을 WebFlux 로 제공한다.
+요청 처리 중에 스레드를 점유하지 않으므로 DB 가 느려져도 동시 처리량이 스레드 풀 크기에 묶이지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/users")
+public class ReactiveUserController {
+
+    private final UserR2dbcRepository userRepository;
+    private final PostR2dbcRepository postRepository;
+
+    @GetMapping("/all")
+    public Mono<CursorPage<User>> retrieveAllUsers(@RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        return userRepository.findPageAfter(afterOrFirst(Cursor.decode(after)), pageSize + 1)
+                .collectList()
+                .flatMap(users -> {
+                    CursorPage<User> page = CursorPage.of(users, pageSize, User::getId);
+                    if (!page.hasNext()) {
+                        return Mono.just(page);
+                    }
+                    return withLink(page, linkTo(methodOn(ReactiveUserController.class)
+                            .retrieveAllUsers(page.getNextCursor(), limit)).withRel(IanaLinkRelations.NEXT).toMono());
+                });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<EntityModel<User>> retrieveUser(@PathVariable Long id) {
+        return userRepository.findById(id.intValue())
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(String.format("ID[%s] not found", id))))
+                .flatMap(user -> withLink(EntityModel.of(user), linkTo(methodOn(ReactiveUserController.class)
+                        .retrieveAllUsers(null, null)).withRel("all-users").toMono()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteUser(@PathVariable Long id) {
+        return userRepository.tombstone(id.intValue())
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new UserNotFoundException(String.format("ID[%s] not found", id)))
+                        : Mono.empty());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<User>> createUser(@Valid @RequestBody User user, ServerHttpRequest request) {
+        return userRepository.save(user)
+                .map(savedUser -> ResponseEntity.created(location(request, savedUser.getId())).build());
+    }
+
+    @GetMapping("/{id}/posts")
+    public Mono<CursorPage<Post>> retrieveAllPostsByUser(@PathVariable Long id,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        return postRepository.findPageByUserId(id.intValue(), afterOrFirst(Cursor.decode(after)), pageSize + 1)
+                .collectList()
+                // 삭제 표시된 사용자의 게시물은 쿼리에서 제외되므로, 조회된 게시물이 있다면 사용자도 존재한다. 빈 페이지일 때만 사용자 존재 여부를 확인한다
+                .flatMap(posts -> posts.isEmpty()
+                        ? requireUser(id).thenReturn(posts)
+                        : Mono.just(posts))
+                .flatMap(posts -> {
+                    CursorPage<Post> page = CursorPage.of(posts, pageSize, Post::getId);
+                    if (!page.hasNext()) {
+                        return Mono.just(page);
+                    }
+                    return withLink(page, linkTo(methodOn(ReactiveUserController.class)
+                            .retrieveAllPostsByUser(id, page.getNextCursor(), limit)).withRel(IanaLinkRelations.NEXT).toMono());
+                });
+    }
+
+    @PostMapping("/{id}/posts")
+    public Mono<ResponseEntity<User>> createPost(@PathVariable Long id, @RequestBody Post post, ServerHttpRequest request) {
+        // 사용자 확인은 저장과 같은 트랜잭션에서 한다. 없거나 삭제 표시된 사용자이면 저장되지 않는다
+        return postRepository.save(id.intValue(), post)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(String.format("ID[%s] not found", id))))
+                .map(savedPost -> ResponseEntity.created(location(request, savedPost.getId())).build());
+    }
+
+    @GetMapping("/{userId}/posts/{postId}")
+    public Mono<EntityModel<Post>> retrievePostByUser(@PathVariable Long userId, @PathVariable Long postId) {
+        return userRepository.existsById(userId.intValue())
+                .flatMap(exists -> exists
+                        ? postRepository.findById(postId.intValue())
+                        : Mono.error(new UserNotFoundException(String.format("User ID[%s] not found", userId))))
+                .switchIfEmpty(Mono.error(() -> new PostNotFoundException(String.format("Post ID[%s] not found", postId))))
+                .flatMap(post -> withLink(EntityModel.of(post), linkTo(methodOn(ReactiveUserController.class)
+                        .retrieveAllPostsByUser(userId, null, null)).withRel("all-posts-of-user").toMono()));
+    }
+
+    @DeleteMapping("/posts/{postId}")
+    public Mono<Void> deletePost(@PathVariable Long postId) {
+        return postRepository.deleteById(postId.intValue())
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new PostNotFoundException(String.format("Post ID[%s] not found", postId)))
+                        : Mono.empty());
+    }
+
+    private Mono<Void> requireUser(Long id) {
+        return userRepository.existsById(id.intValue())
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new UserNotFoundException(String.format("ID[%s] not found", id))));
+    }
+
+    private static <T extends RepresentationModel<? extends T>> Mono<T> withLink(T model, Mono<Link> link) {
+        return link.map(model::add);
+    }
+
+    private static Integer afterOrFirst(Integer after) {
+        return after == null ? 0 : after;
+    }
+
+    private static URI location(ServerHttpRequest request, Integer id) {
+        return UriComponentsBuilder.fromHttpRequest(request)
+                .path("/{id}")
+                .buildAndExpand(id)
+                .toUri();
+    }
+}
@@ -0,0 +1,99 @@
+package com.mingu.restfulwebapp.reactive.user;
+
+import com.mingu.restfulwebapp.user.User;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/*
+User 는 JPA 엔티티이므로 R2DBC 매핑에 맡기지 않고, DatabaseClient 로 직접 쿼리하고 row 를 변환한다.
+쿼리는 MVC 모듈의 UserRepository 와 같은 keyset 방식을 사용하고, 삭제 표시(tombstone)된 사용자는 제외한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserR2dbcRepository {
+
+    private static final String COLUMNS = "id, join_date, name, password, ssn, version, updated_at";
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<User> findPageAfter(Integer afterId, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from user where id > :afterId and deleted = false order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> toUser(row))
+                .all();
+    }
+
+    public Mono<User> findById(Integer id) {
+        return databaseClient.sql("select " + COLUMNS + " from user where id = :id and deleted = false")
+                .bind("id", id)
+                .map((row, metadata) -> toUser(row))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Integer id) {
+        return databaseClient.sql("select id from user where id = :id and deleted = false")
+                .bind("id", id)
+                .map((row, metadata) -> row.get("id", Integer.class))
+                .first()
+                .hasElement();
+    }
+
+    public Mono<User> save(User user) {
+        return databaseClient.sql("select next value for user_seq")
+                .map((row, metadata) -> row.get(0, Long.class).intValue())
+                .one()
+                .flatMap(id -> {
+                    DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into user (" + COLUMNS + ") "
+                            + "values (:id, :joinDate, :name, :password, :ssn, 0, current_timestamp())")
+                            .bind("id", id);
+                    insert = user.getJoinDate() == null
+                            ? insert.bindNull("joinDate", LocalDateTime.class)
+                            : insert.bind("joinDate", new Timestamp(user.getJoinDate().getTime()).toLocalDateTime());
+                    insert = bindNullable(insert, "name", user.getName());
+                    insert = bindNullable(insert, "password", user.getPassword());
+                    insert = bindNullable(insert, "ssn", user.getSsn());
+                    return insert.fetch().rowsUpdated().thenReturn(id);
+                })
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    // MVC 모듈의 UserRepository.tombstone 과 같이 삭제 표시만 한다. 이미 표시된 사용자면 0 을 돌려준다
+    public Mono<Integer> tombstone(Integer id) {
+        return databaseClient.sql("update user set deleted = true where id = :id and deleted = false")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static User toUser(Row row) {
+        User user = new User();
+        user.setId(row.get("id", Integer.class));
+        user.setJoinDate(toDate(row.get("join_date", LocalDateTime.class)));
+        user.setName(row.get("name", String.class));
+        user.setPassword(row.get("password", String.class));
+        user.setSsn(row.get("ssn", String.class));
+        user.setVersion(row.get("version", Long.class));
+        user.setUpdatedAt(toDate(row.get("updated_at", LocalDateTime.class)));
+        return user;
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
@@ -0,0 +1,6 @@
+create sequence if not exists user_seq start with 1 increment by 1;
+create sequence if not exists post_seq start with 1 increment by 1;
+
+create table if not exists user (id integer not null, join_date timestamp, name varchar(255), password varchar(255), ssn varchar(255), version bigint, updated_at timestamp, post_count bigint default 0 not null, last_post_id integer, last_post_at timestamp, deleted boolean default false not null, primary key (id));
+create table if not exists post (id integer not null, description varchar(255), version bigint, updated_at timestamp, user_id integer, primary key (id), foreign key (user_id) references user);
+create index if not exists idx_post_user_id on post (user_id, id);
@@ -0,0 +1,113 @@
+package com.mingu.restfulwebapp.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+실행 중인 MVC 모듈과 WebFlux 모듈에 같은 요청을 높은 동시성으로 보내고 처리량과 지연시간을 비교한다.
+두 애플리케이션을 먼저 띄운 후 아래처럼 실행한다.
+
+  ./mvnw -pl reactive test -Dtest=LoadComparisonTest \
+      -Dcompare.mvc.url=http://localhost:8009 -Dcompare.reactive.url=http://localhost:8010 \
+      -Dcompare.concurrency=1000 -Dcompare.requests=50000
+ */
+@EnabledIfSystemProperty(named = "compare.mvc.url", matches = ".+")
+class LoadComparisonTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("compare.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("compare.requests", 50_000);
+    private static final String PATH = System.getProperty("compare.path", "/api/users/10001");
+
+    @Test
+    void compareMvcAndReactive() {
+        Result mvc = run(System.getProperty("compare.mvc.url"));
+        Result reactive = run(System.getProperty("compare.reactive.url", "http://localhost:8010"));
+        System.out.printf("concurrency=%d requests=%d path=%s%n", CONCURRENCY, REQUESTS, PATH);
+        System.out.println("mvc      " + mvc);
+        System.out.println("reactive " + reactive);
+
+        // 실패한 요청이 섞이면 처리량과 지연시간을 비교할 수 없다
+        assertThat(mvc.errors).as("mvc errors").isZero();
+        assertThat(reactive.errors).as("reactive errors").isZero();
+    }
+
+    private static Result run(String baseUrl) {
+        ConnectionProvider provider = ConnectionProvider.builder("load-comparison")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+        try {
+            // warm-up
+            send(client, Math.min(REQUESTS, 5_000), new AtomicInteger());
+
+            AtomicInteger errors = new AtomicInteger();
+            long started = System.nanoTime();
+            long[] latencies = send(client, REQUESTS, errors);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            return new Result(REQUESTS / seconds, latencies, errors.get());
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    // 2xx 가 아닌 응답과 연결 실패는 errors 로 세고, 지연시간에는 넣지 않는다
+    private static long[] send(WebClient client, int requests, AtomicInteger errors) {
+        long[] latencies = Flux.range(0, requests)
+                .flatMap(i -> {
+                    long started = System.nanoTime();
+                    return client.get().uri(PATH).retrieve().toBodilessEntity()
+                            .map(response -> System.nanoTime() - started)
+                            .onErrorResume(e -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, CONCURRENCY)
+                .collectList()
+                .block(Duration.ofMinutes(10))
+                .stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static class Result {
+        private final double throughput;
+        private final long[] sortedLatencies;
+        private final int errors;
+
+        Result(double throughput, long[] sortedLatencies, int errors) {
+            this.throughput = throughput;
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms errors=%d",
+                    throughput, percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0), errors);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.mingu.restfulwebapp.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// MVC 모듈과 같은 응답 형식(HAL 링크, cursor 페이지, ExceptionResponse)을 유지하는지 확인한다
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReactiveApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void retrieveUserWithLinks() {
+        webTestClient.get().uri("/api/users/10001").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("user1")
+                .jsonPath("$._links.all-users.href").exists();
+    }
+
+    @Test
+    void pagesUsersWithCursor() {
+        webTestClient.get().uri("/api/users/all?limit=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").exists()
+                .jsonPath("$._links.next.href").exists();
+    }
+
+    @Test
+    void unknownUserUsesExceptionResponse() {
+        webTestClient.get().uri("/api/users/999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("ID[999] not found")
+                .jsonPath("$.details").isEqualTo("uri=/api/users/999");
+    }
+
+    @Test
+    void createUserValidatesRequest() {
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"a\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed");
+    }
+
+    // 삭제는 표시만 하므로 다시 삭제하면 404 이고, 삭제된 사용자와 그 게시물은 조회되지 않는다
+    @Test
+    void deleteUserMarksTombstone() {
+        String location = webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"tombstone\",\"joinDate\":\"2021-01-01T00:00:00.000+00:00\",\"password\":\"pass\",\"ssn\":\"701010-1111111\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getLocation().getPath();
+        webTestClient.post().uri(location + "/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"description\":\"hello\"}")
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.delete().uri(location).exchange().expectStatus().is2xxSuccessful();
+
+        webTestClient.delete().uri(location).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri(location).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri(location + "/posts").exchange().expectStatus().isNotFound();
+    }
+
+    // 게시물 등록/삭제는 사용자 통계를 같은 트랜잭션에서 바꾸고, 삭제 표시된 사용자에게는 게시물을 등록/삭제할 수 없다
+    @Test
+    void postWritesMaintainUserStats() {
+        String location = webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"stats\",\"joinDate\":\"2021-01-01T00:00:00.000+00:00\",\"password\":\"pass\",\"ssn\":\"701010-1111111\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getLocation().getPath();
+        Integer userId = Integer.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        Integer first = createPost(location);
+        Integer second = createPost(location);
+
+        assertThat(stats(userId)).containsExactly(2L, second);
+
+        webTestClient.delete().uri("/api/users/posts/" + second).exchange().expectStatus().is2xxSuccessful();
+        assertThat(stats(userId)).containsExactly(1L, first);
+
+        webTestClient.delete().uri(location).exchange().expectStatus().is2xxSuccessful();
+        webTestClient.post().uri(location + "/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"description\":\"too late\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/users/posts/" + first).exchange().expectStatus().isNotFound();
+        assertThat(stats(userId)).containsExactly(1L, first);
+        assertThat(databaseClient.sql("select count(*) from post where user_id = :userId")
+                .bind("userId", userId)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one().block()).isEqualTo(1L);
+    }
+
+    private Integer createPost(String userLocation) {
+        String location = webTestClient.post().uri(userLocation + "/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"description\":\"stats post\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getLocation().getPath();
+        return Integer.valueOf(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private List<Object> stats(Integer userId) {
+        return databaseClient.sql("select post_count, last_post_id from user where id = :id")
+                .bind("id", userId)
+                .map((row, metadata) -> Arrays.<Object>asList(row.get("post_count", Long.class), row.get("last_post_id", Integer.class)))
+                .one().block();
+    }
+}
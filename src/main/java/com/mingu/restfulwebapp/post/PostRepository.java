@@ -1,10 +0,0 @@
-package com.mingu.restfulwebapp.post;
-
-import com.mingu.restfulwebapp.post.Post;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-@Repository
-public interface PostRepository extends JpaRepository<Post, Integer> {
-
-}
@@ -1,48 +0,0 @@
-package com.mingu.restfulwebapp.user;
-
-import com.mingu.restfulwebapp.post.Post;
-import io.swagger.annotations.ApiModel;
-import io.swagger.annotations.ApiModelProperty;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.Id;
-import javax.persistence.OneToMany;
-import javax.validation.constraints.Past;
-import javax.validation.constraints.Size;
-import java.util.Date;
-import java.util.List;
-
-@Data
-@NoArgsConstructor
-//@JsonIgnoreProperties(value = {"password"})
-//@JsonFilter("UserInfo") // UserInfo 라는 이름의 필터를 추가
-@ApiModel(description = "사용자 정보 도메인 객체")
-@Entity
-public class User {
-
-    @Id
-    @GeneratedValue
-    private Integer id;
-
-    @Size(min = 2, message = "이름은 2글자 이상 입력해야합니다.")
-    @ApiModelProperty(notes = "사용자 이름을 입력해주세요.")
-    private String name;
-
-    @Past
-    @ApiModelProperty(notes = "사용자 등록일을 입력해주세요.")
-    private Date joinDate;
-
-//    @JsonIgnore
-    @ApiModelProperty(notes = "사용자 비밀번호를 입력해주세요.")
-    private String password;
-
-//    @JsonIgnore
-    @ApiModelProperty(notes = "사용자 주민번호를 입력해주세요.")
-    private String ssn;
-
-    @OneToMany(mappedBy = "user")
-    private List<Post> posts;
-}
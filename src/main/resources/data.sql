@@ -1,6 +0,0 @@
-insert into user values (10001, sysdate(), 'user1', 'test1', '701010-1111111');
-insert into user values (10002, sysdate(), 'user2', 'test2', '801010-1111111');
-insert into user values (10003, sysdate(), 'user3', 'test3', '901010-1111111');
-
-insert into post values (20001, 'first post', 10001);
-insert into post values (20002, 'second post', 10001);
\ No newline at end of file